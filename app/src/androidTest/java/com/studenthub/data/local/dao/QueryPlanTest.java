@@ -0,0 +1,252 @@
+package com.studenthub.data.local.dao;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.studenthub.data.local.database.AppDatabase;
+import com.studenthub.data.local.entity.AssignmentEntity;
+import com.studenthub.data.local.entity.ClassEntity;
+import com.studenthub.data.local.entity.TaskEntity;
+import com.studenthub.data.local.model.SearchResult;
+import com.studenthub.util.FtsUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that the hot per-user queries are served by the composite indexes.
+ * Each DAO method is run once with a query callback to capture the SQL Room
+ * actually issues, which is then explained; no step may be a full table scan.
+ * The LiveData and paged variants share the SQL of their *Sync twins.
+ *
+ * Search queries must be driven by the full-text index, with content rows
+ * looked up by rowid. They run over 10k seeded rows; their latency is
+ * logged under {@value #TAG} but not asserted, as device wall time is too
+ * noisy to gate a build on.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+
+    private static final String TAG = "QueryPlanTest";
+
+    private static final String USER = "u1";
+    private static final String OTHER_USER = "u2";
+
+    // Seeded per user for the search checks: 10k rows for the searching user
+    private static final int SEARCH_ASSIGNMENTS = 5_000;
+    private static final int SEARCH_TASKS = 4_000;
+    private static final int SEARCH_CLASSES = 1_000;
+    private static final int SEARCH_CANDIDATES = 100;
+
+    private static final String[] WORDS = {
+        "calculus", "chemistry", "history", "literature", "physics", "biology",
+        "essay", "report", "lab", "problem", "set", "reading", "chapter", "review"
+    };
+
+    private final List<Captured> captured = Collections.synchronizedList(new ArrayList<>());
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+            .allowMainThreadQueries()
+            .setQueryCallback((sql, args) -> captured.add(new Captured(sql, args)), Runnable::run)
+            .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void assignmentQueriesUseIndexes() {
+        AssignmentDao dao = db.assignmentDao();
+        assertNoScan(() -> dao.getAllForUserSync(USER));
+        assertNoScan(() -> dao.getIncompleteForUserSync(USER));
+        assertNoScan(() -> dao.getUpcomingAssignments(USER, 0, Long.MAX_VALUE, 5));
+        assertNoScan(() -> dao.getUnsyncedAssignments(USER));
+    }
+
+    @Test
+    public void taskQueriesUseIndexes() {
+        TaskDao dao = db.taskDao();
+        assertNoScan(() -> dao.getAllForUserSync(USER));
+        assertNoScan(() -> dao.getIncompleteForUserSync(USER));
+        assertNoScan(() -> dao.getTasksForToday(USER, 0, Long.MAX_VALUE));
+        assertNoScan(() -> dao.getUnsyncedTasks(USER));
+    }
+
+    @Test
+    public void classQueriesUseIndexes() {
+        ClassDao dao = db.classDao();
+        assertNoScan(() -> dao.getAllForUserSync(USER));
+        assertNoScan(() -> dao.getUnsyncedClasses(USER));
+    }
+
+    @Test
+    public void searchQueriesAreDrivenByFullTextIndex() {
+        seedSearchRows(new Random(42));
+        SearchDao dao = db.searchDao();
+        for (String input : new String[] {"c", "chemistry", "lab rep"}) {
+            String match = FtsUtils.toPrefixQuery(input);
+            assertFtsDriven("assignments_fts", input, () -> dao.searchAssignments(USER, match, SEARCH_CANDIDATES));
+            assertFtsDriven("tasks_fts", input, () -> dao.searchTasks(USER, match, SEARCH_CANDIDATES));
+            assertFtsDriven("classes_fts", input, () -> dao.searchClasses(USER, match, SEARCH_CANDIDATES));
+        }
+    }
+
+    private void assertNoScan(Runnable query) {
+        Explained explained = explain(query);
+        for (String step : explained.plan) {
+            // "SCAN t USING [COVERING] INDEX" walks an index, a bare "SCAN t" walks the table
+            assertFalse(explained.sql + "\n" + explained.plan, step.startsWith("SCAN") && !step.contains("USING"));
+        }
+    }
+
+    /**
+     * The MATCH on the full-text table comes first and each hit is joined
+     * by rowid; the reverse order re-runs the MATCH per content row.
+     */
+    private void assertFtsDriven(String ftsTable, String input, Search search) {
+        List<SearchResult> hits = new ArrayList<>();
+        Explained explained = explain(() -> hits.addAll(search.run()));
+        assertFalse("No hits in " + ftsTable + " for \"" + input + "\"", hits.isEmpty());
+
+        String plan = explained.sql + "\n" + explained.plan;
+        assertTrue(plan, explained.plan.get(0).contains(ftsTable) && explained.plan.get(0).contains("VIRTUAL TABLE"));
+        for (String step : explained.plan.subList(1, explained.plan.size())) {
+            assertTrue(plan, step.contains("INTEGER PRIMARY KEY"));
+        }
+
+        long startedAt = System.nanoTime();
+        search.run();
+        Log.i(TAG, String.format("%s \"%s\": %.2f ms", ftsTable, input, (System.nanoTime() - startedAt) / 1e6));
+    }
+
+    private Explained explain(Runnable query) {
+        captured.clear();
+        query.run();
+        Captured select = lastSelect();
+        assertNotNull("No query captured", select);
+
+        List<String> plan = new ArrayList<>();
+        try (Cursor cursor = db.getOpenHelper().getReadableDatabase()
+                .query("EXPLAIN QUERY PLAN " + select.sql, select.args.toArray())) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.add(cursor.getString(detail));
+            }
+        }
+        return new Explained(select.sql, plan);
+    }
+
+    /**
+     * Rows for the searching user, a tenth of them tombstoned, plus as many
+     * for another user so the user and tombstone filters have rows to drop.
+     */
+    private void seedSearchRows(Random random) {
+        db.runInTransaction(() -> {
+            for (String userId : new String[] {USER, OTHER_USER}) {
+                List<AssignmentEntity> assignments = new ArrayList<>();
+                for (int i = 0; i < SEARCH_ASSIGNMENTS; i++) {
+                    AssignmentEntity a = new AssignmentEntity();
+                    a.setUserId(userId);
+                    a.setTitle(phrase(random, 3));
+                    a.setCourse(phrase(random, 1));
+                    a.setNotes(phrase(random, 8));
+                    a.setDeleted(i % 10 == 0);
+                    assignments.add(a);
+                }
+                db.assignmentDao().insertAll(assignments);
+
+                List<TaskEntity> tasks = new ArrayList<>();
+                for (int i = 0; i < SEARCH_TASKS; i++) {
+                    TaskEntity t = new TaskEntity();
+                    t.setUserId(userId);
+                    t.setTitle(phrase(random, 4));
+                    t.setTags(phrase(random, 2).replace(' ', ','));
+                    t.setDeleted(i % 10 == 0);
+                    tasks.add(t);
+                }
+                db.taskDao().insertAll(tasks);
+
+                List<ClassEntity> classes = new ArrayList<>();
+                for (int i = 0; i < SEARCH_CLASSES; i++) {
+                    ClassEntity c = new ClassEntity();
+                    c.setUserId(userId);
+                    c.setName(phrase(random, 2));
+                    c.setBuilding(phrase(random, 1));
+                    c.setRoom(String.valueOf(100 + i % 400));
+                    c.setNotes(phrase(random, 6));
+                    c.setDeleted(i % 10 == 0);
+                    classes.add(c);
+                }
+                db.classDao().insertAll(classes);
+            }
+        });
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private Captured lastSelect() {
+        synchronized (captured) {
+            for (int i = captured.size() - 1; i >= 0; i--) {
+                Captured entry = captured.get(i);
+                // Skip the invalidation tracker's own bookkeeping reads
+                if (entry.sql.startsWith("SELECT") && !entry.sql.contains("room_table_modification_log")) {
+                    return entry;
+                }
+            }
+        }
+        return null;
+    }
+
+    private interface Search {
+        List<SearchResult> run();
+    }
+
+    private static class Explained {
+        final String sql;
+        final List<String> plan;
+
+        Explained(String sql, List<String> plan) {
+            this.sql = sql;
+            this.plan = plan;
+        }
+    }
+
+    private static class Captured {
+        final String sql;
+        final List<Object> args;
+
+        Captured(String sql, List<?> args) {
+            this.sql = sql;
+            this.args = new ArrayList<>(args);
+        }
+    }
+}
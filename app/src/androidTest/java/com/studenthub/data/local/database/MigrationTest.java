@@ -0,0 +1,123 @@
+package com.studenthub.data.local.database;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Upgrades a version 1 database through every migration to the current
+ * version and opens it with Room.
+ *
+ * No exported schemas exist for versions before 7, so the starting database
+ * is built from the tables the first release created. Room validates the
+ * migrated tables, indexes and foreign keys against the compiled entities
+ * on open and throws on any mismatch; no destructive fallback is installed,
+ * so a missing migration fails too.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationTest {
+
+    private static final String TEST_DB = "migration-test";
+
+    // Tables as Room created them at version 1, before any indexes
+    private static final String[] VERSION_1_TABLES = {
+        "CREATE TABLE IF NOT EXISTS `classes` (`id` TEXT NOT NULL, `userId` TEXT, `name` TEXT, `days` TEXT, "
+            + "`startTime` INTEGER NOT NULL, `endTime` INTEGER NOT NULL, `building` TEXT, `room` TEXT, "
+            + "`notes` TEXT, `createdAt` INTEGER NOT NULL, `updatedAt` INTEGER NOT NULL, "
+            + "`deleted` INTEGER NOT NULL, `synced` INTEGER NOT NULL, PRIMARY KEY(`id`))",
+        "CREATE TABLE IF NOT EXISTS `assignments` (`id` TEXT NOT NULL, `userId` TEXT, `title` TEXT, "
+            + "`course` TEXT, `dueDate` INTEGER NOT NULL, `priority` INTEGER NOT NULL, `notes` TEXT, "
+            + "`completed` INTEGER NOT NULL, `createdAt` INTEGER NOT NULL, `updatedAt` INTEGER NOT NULL, "
+            + "`deleted` INTEGER NOT NULL, `synced` INTEGER NOT NULL, `lastReminderSent` INTEGER NOT NULL, "
+            + "PRIMARY KEY(`id`))",
+        "CREATE TABLE IF NOT EXISTS `tasks` (`id` TEXT NOT NULL, `userId` TEXT, `title` TEXT, "
+            + "`dueDate` INTEGER, `tags` TEXT, `completed` INTEGER NOT NULL, `createdAt` INTEGER NOT NULL, "
+            + "`updatedAt` INTEGER NOT NULL, `deleted` INTEGER NOT NULL, `synced` INTEGER NOT NULL, "
+            + "PRIMARY KEY(`id`))"
+    };
+
+    private Context context;
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(TEST_DB);
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null) db.close();
+        context.deleteDatabase(TEST_DB);
+    }
+
+    @Test
+    public void migrateAllFromFirstVersion() {
+        try (SQLiteDatabase v1 = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(TEST_DB), null)) {
+            for (String sql : VERSION_1_TABLES) {
+                v1.execSQL(sql);
+            }
+            v1.execSQL("INSERT INTO classes (id, userId, name, days, startTime, endTime, building, room, notes, "
+                + "createdAt, updatedAt, deleted, synced) "
+                + "VALUES ('c1', 'u1', 'Physics', '2,4', 540, 600, 'Hall', '101', NULL, 1, 1, 0, 1)");
+            v1.execSQL("INSERT INTO assignments (id, userId, title, course, dueDate, priority, notes, completed, "
+                + "createdAt, updatedAt, deleted, synced, lastReminderSent) "
+                + "VALUES ('a1', 'u1', 'Lab report', 'Physics', 1000, 1, 'optics', 0, 1, 1, 0, 0, 0)");
+            v1.execSQL("INSERT INTO tasks (id, userId, title, dueDate, tags, completed, createdAt, updatedAt, deleted, synced) "
+                + "VALUES ('t1', 'u1', 'Read chapter', NULL, 'reading, Physics', 0, 1, 1, 0, 1)");
+            v1.execSQL("INSERT INTO tasks (id, userId, title, dueDate, tags, completed, createdAt, updatedAt, deleted, synced) "
+                + "VALUES ('t2', 'u1', 'Old task', NULL, 'reading', 0, 1, 2, 1, 0)");
+            v1.setVersion(1);
+        }
+
+        db = Room.databaseBuilder(context, AppDatabase.class, TEST_DB)
+            .addMigrations(AppDatabase.MIGRATION_1_2, AppDatabase.MIGRATION_2_3, AppDatabase.MIGRATION_3_4,
+                AppDatabase.MIGRATION_4_5, AppDatabase.MIGRATION_5_6, AppDatabase.MIGRATION_6_7)
+            .build();
+        // Opening runs the migrations and Room's schema validation
+        SupportSQLiteDatabase sqlite = db.getOpenHelper().getWritableDatabase();
+
+        // 1 -> 2: dirty rows are queued, tombstones as deletes
+        assertEquals("UPSERT", queryString(sqlite, "SELECT op FROM outbox WHERE docId = 'a1'"));
+        assertEquals("DELETE", queryString(sqlite, "SELECT op FROM outbox WHERE docId = 't2'"));
+        assertEquals(2, queryLong(sqlite, "SELECT COUNT(*) FROM outbox"));
+
+        // 3 -> 4: one meeting per scheduled day
+        assertEquals(2, queryLong(sqlite, "SELECT COUNT(*) FROM class_meetings WHERE classId = 'c1'"));
+
+        // 5 -> 6: existing rows are searchable
+        assertEquals(1, queryLong(sqlite, "SELECT COUNT(*) FROM assignments_fts WHERE assignments_fts MATCH 'optics'"));
+        assertEquals(1, queryLong(sqlite, "SELECT COUNT(*) FROM classes_fts WHERE classes_fts MATCH 'physics'"));
+
+        // 6 -> 7: tags of live tasks only, counted
+        assertEquals(2, queryLong(sqlite, "SELECT COUNT(*) FROM tags WHERE userId = 'u1'"));
+        assertEquals(1, queryLong(sqlite, "SELECT taskCount FROM tags WHERE name = 'reading'"));
+        assertEquals(2, queryLong(sqlite, "SELECT COUNT(*) FROM task_tags WHERE taskId = 't1'"));
+    }
+
+    private static long queryLong(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+
+    private static String queryString(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            cursor.moveToFirst();
+            return cursor.getString(0);
+        }
+    }
+}
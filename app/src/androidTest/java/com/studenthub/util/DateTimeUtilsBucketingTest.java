@@ -0,0 +1,122 @@
+package com.studenthub.util;
+
+import static org.junit.Assert.assertEquals;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Calendar;
+import java.util.Random;
+
+/**
+ * Checks the day bucketing used while binding list rows against the
+ * Calendar-based arithmetic it replaced.
+ *
+ * Also logs the cost of both, best of a few rounds after a warm-up. Device
+ * wall time is too noisy to gate a build on, so the numbers are reported
+ * only; compare them in logcat under {@value #TAG}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DateTimeUtilsBucketingTest {
+
+    private static final String TAG = "DateTimeUtilsBucketing";
+
+    private static final int SAMPLES = 20_000;
+    private static final int ROUNDS = 5;
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+
+    private long[] timestamps;
+
+    @Before
+    public void setUp() {
+        DateTimeUtils.onTimeZoneChanged();
+        long now = System.currentTimeMillis();
+        Random random = new Random(42);
+        timestamps = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            // Due dates spread over the previous and next two weeks
+            timestamps[i] = now + (long) ((random.nextDouble() * 4 - 2) * 7 * DAY_MS);
+        }
+    }
+
+    @Test
+    public void bucketingMatchesCalendar() {
+        long now = System.currentTimeMillis();
+        for (long timestamp : timestamps) {
+            assertEquals(calendarBucket(timestamp, now), cachedBucket(timestamp));
+        }
+    }
+
+    @Test
+    public void reportBucketingCost() {
+        long now = System.currentTimeMillis();
+        long cached = bestOf(() -> {
+            int sum = 0;
+            for (long timestamp : timestamps) sum += cachedBucket(timestamp);
+            return sum;
+        });
+        long calendar = bestOf(() -> {
+            int sum = 0;
+            for (long timestamp : timestamps) sum += calendarBucket(timestamp, now);
+            return sum;
+        });
+
+        Log.i(TAG, "cached " + cached / SAMPLES + " ns/row, calendar " + calendar / SAMPLES + " ns/row");
+    }
+
+    private static int cachedBucket(long timestamp) {
+        if (DateTimeUtils.isToday(timestamp)) return 1;
+        if (DateTimeUtils.isTomorrow(timestamp)) return 2;
+        if (DateTimeUtils.isThisWeek(timestamp)) return 3;
+        return 0;
+    }
+
+    /**
+     * The pre-java.time checks: a Calendar per call, truncated to midnight.
+     */
+    private static int calendarBucket(long timestamp, long now) {
+        Calendar today = startOfDay(now);
+        Calendar day = startOfDay(timestamp);
+        if (day.equals(today)) return 1;
+        today.add(Calendar.DAY_OF_YEAR, 1);
+        if (day.equals(today)) return 2;
+
+        Calendar weekEnd = startOfDay(now);
+        weekEnd.add(Calendar.DAY_OF_YEAR, Calendar.SATURDAY - weekEnd.get(Calendar.DAY_OF_WEEK) + 1);
+        if (timestamp > now && timestamp < weekEnd.getTimeInMillis()) return 3;
+        return 0;
+    }
+
+    private static Calendar startOfDay(long timestamp) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(timestamp);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        return cal;
+    }
+
+    private static long bestOf(Pass pass) {
+        // Warm-up round, not counted
+        int sink = pass.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long startedAt = System.nanoTime();
+            sink += pass.run();
+            best = Math.min(best, System.nanoTime() - startedAt);
+        }
+        // Keep the work observable so it cannot be optimized away
+        if (sink < 0) Log.v(TAG, "sink " + sink);
+        return best;
+    }
+
+    private interface Pass {
+        int run();
+    }
+}
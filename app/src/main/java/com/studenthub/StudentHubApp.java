@@ -3,10 +3,21 @@ package com.studenthub;
 import android.app.Application;
 import android.app.NotificationChannel;
 import android.app.NotificationManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
 import android.os.Build;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatDelegate;
+import androidx.core.content.ContextCompat;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.ProcessLifecycleOwner;
 
+import com.studenthub.data.repository.DataRepository;
+import com.studenthub.util.DateTimeUtils;
 import com.studenthub.util.PreferencesManager;
 
 /**
@@ -33,6 +44,47 @@ public class StudentHubApp extends Application {
         
         // Create notification channels
         createNotificationChannels();
+        
+        // Live sync only runs while the app is in the foreground
+        observeAppForeground();
+        
+        // Cached day boundaries follow time zone and clock changes
+        observeClockChanges();
+    }
+
+    /**
+     * Reset the day boundaries cached by {@link DateTimeUtils} whenever the
+     * time zone, date or wall clock changes.
+     */
+    private void observeClockChanges() {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        filter.addAction(Intent.ACTION_TIME_CHANGED);
+        filter.addAction(Intent.ACTION_DATE_CHANGED);
+        ContextCompat.registerReceiver(this, new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                DateTimeUtils.onTimeZoneChanged();
+            }
+        }, filter, ContextCompat.RECEIVER_NOT_EXPORTED);
+    }
+
+    /**
+     * Attach Firestore live listeners when the app comes to the foreground
+     * and detach them as soon as it goes to the background.
+     */
+    private void observeAppForeground() {
+        ProcessLifecycleOwner.get().getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onStart(@NonNull LifecycleOwner owner) {
+                DataRepository.getInstance(StudentHubApp.this).startLiveSync();
+            }
+
+            @Override
+            public void onStop(@NonNull LifecycleOwner owner) {
+                DataRepository.getInstance(StudentHubApp.this).stopLiveSync();
+            }
+        });
     }
 
     /**
@@ -1,14 +1,18 @@
 package com.studenthub.data.local.dao;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
 import com.studenthub.data.local.entity.AssignmentEntity;
+import com.studenthub.data.local.model.AssignmentRow;
+import com.studenthub.data.local.model.SyncStamp;
 
 import java.util.List;
 
@@ -19,6 +23,9 @@ import java.util.List;
 @Dao
 public interface AssignmentDao {
     
+    // Columns of an AssignmentRow; list screens never load notes
+    String ROW_COLUMNS = "id, title, course, dueDate, priority, completed";
+    
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(AssignmentEntity assignment);
     
@@ -49,6 +56,13 @@ public interface AssignmentDao {
     @Query("SELECT * FROM assignments WHERE userId = :userId AND deleted = 0 AND completed = 0 ORDER BY dueDate ASC")
     List<AssignmentEntity> getIncompleteForUserSync(String userId);
     
+    // Paged list rows: completed rows last so due-date sections stay contiguous
+    @Query("SELECT " + ROW_COLUMNS + " FROM assignments WHERE userId = :userId AND deleted = 0 ORDER BY completed ASC, dueDate ASC")
+    PagingSource<Integer, AssignmentRow> getAllRowsPaged(String userId);
+    
+    @Query("SELECT " + ROW_COLUMNS + " FROM assignments WHERE userId = :userId AND deleted = 0 AND completed = 0 ORDER BY dueDate ASC")
+    PagingSource<Integer, AssignmentRow> getIncompleteRowsPaged(String userId);
+    
     @Query("SELECT * FROM assignments WHERE id = :id")
     AssignmentEntity getById(String id);
     
@@ -61,12 +75,24 @@ public interface AssignmentDao {
     @Query("SELECT * FROM assignments WHERE userId = :userId AND deleted = 0 AND completed = 0 AND dueDate BETWEEN :startTime AND :endTime ORDER BY dueDate ASC LIMIT :limit")
     List<AssignmentEntity> getUpcomingAssignments(String userId, long startTime, long endTime, int limit);
     
+    @Query("SELECT " + ROW_COLUMNS + " FROM assignments WHERE userId = :userId AND deleted = 0 AND completed = 0 AND dueDate BETWEEN :startTime AND :endTime ORDER BY dueDate ASC LIMIT :limit")
+    List<AssignmentRow> getUpcomingRows(String userId, long startTime, long endTime, int limit);
+    
+    @Query("UPDATE assignments SET lastReminderSent = :timestamp WHERE id = :id")
+    void setLastReminderSent(String id, long timestamp);
+    
     @Query("SELECT * FROM assignments WHERE userId = :userId AND synced = 0")
     List<AssignmentEntity> getUnsyncedAssignments(String userId);
     
+    @Query("DELETE FROM assignments WHERE id IN (:ids) AND synced = 1")
+    void deleteSyncedByIds(List<String> ids);
+    
     @Query("UPDATE assignments SET synced = 1 WHERE id = :id")
     void markSynced(String id);
     
+    @Query("UPDATE assignments SET synced = 1 WHERE id = :id AND updatedAt = :updatedAt")
+    void markSyncedIfUnchanged(String id, long updatedAt);
+    
     @Query("UPDATE assignments SET synced = 1 WHERE userId = :userId")
     void markAllSynced(String userId);
     
@@ -85,6 +111,26 @@ public interface AssignmentDao {
     @Query("SELECT * FROM assignments WHERE userId = :userId")
     List<AssignmentEntity> getAllIncludingDeleted(String userId);
     
-    @Query("DELETE FROM assignments WHERE deleted = 1 AND synced = 1")
-    void cleanupDeletedAndSynced();
+    @Query("DELETE FROM assignments WHERE id IN (SELECT id FROM assignments WHERE deleted = 1 AND synced = 1 AND updatedAt < :before LIMIT :limit)")
+    int purgeAcknowledgedTombstones(long before, int limit);
+    
+    @Query("SELECT * FROM assignments WHERE deleted = 1 AND synced = 0 AND id NOT IN (SELECT docId FROM outbox WHERE collection = 'assignments') LIMIT :limit")
+    List<AssignmentEntity> getUnqueuedTombstones(int limit);
+    
+    @Query("SELECT id, updatedAt FROM assignments WHERE id IN (:ids)")
+    List<SyncStamp> getSyncStamps(List<String> ids);
+    
+    /**
+     * Last-write-wins merge of remote assignments in a single transaction.
+     * @return the remote rows that won and were written
+     */
+    @Transaction
+    default List<AssignmentEntity> mergeRemote(List<AssignmentEntity> remote) {
+        List<AssignmentEntity> winners = SyncStamp.selectNewer(
+            remote, AssignmentEntity::getId, AssignmentEntity::getUpdatedAt, this::getSyncStamps);
+        if (!winners.isEmpty()) {
+            insertAll(winners);
+        }
+        return winners;
+    }
 }
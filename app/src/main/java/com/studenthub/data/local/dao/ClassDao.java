@@ -6,10 +6,16 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
 import com.studenthub.data.local.entity.ClassEntity;
+import com.studenthub.data.local.entity.ClassMeetingEntity;
+import com.studenthub.data.local.model.ClassRow;
+import com.studenthub.data.local.model.ClassWithMeetings;
+import com.studenthub.data.local.model.SyncStamp;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,6 +25,10 @@ import java.util.List;
 @Dao
 public interface ClassDao {
     
+    // Columns of a ClassRow; qualified so they also work in joins with class_meetings
+    String ROW_COLUMNS = "classes.id, classes.name, classes.days, classes.startTime, classes.endTime, "
+        + "classes.building, classes.room";
+    
     // Insert operations
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(ClassEntity classEntity);
@@ -54,6 +64,12 @@ public interface ClassDao {
     @Query("SELECT * FROM classes WHERE userId = :userId AND deleted = 0 ORDER BY startTime ASC")
     List<ClassEntity> getAllForUserSync(String userId);
     
+    /**
+     * Get list rows for all non-deleted classes (LiveData)
+     */
+    @Query("SELECT " + ROW_COLUMNS + " FROM classes WHERE userId = :userId AND deleted = 0 ORDER BY startTime ASC")
+    LiveData<List<ClassRow>> getRowsForUser(String userId);
+    
     /**
      * Get a specific class by ID
      */
@@ -67,17 +83,74 @@ public interface ClassDao {
     LiveData<ClassEntity> getByIdLiveData(String id);
     
     /**
-     * Get classes for a specific day of week
-     * @param dayOfWeek day number as string to search in days field
+     * Get classes meeting on a specific day of week, via the indexed meetings table
+     * @param dayOfWeek Calendar day constant (1=Sunday, 7=Saturday)
      */
-    @Query("SELECT * FROM classes WHERE userId = :userId AND deleted = 0 AND days LIKE '%' || :dayOfWeek || '%' ORDER BY startTime ASC")
-    List<ClassEntity> getClassesForDay(String userId, String dayOfWeek);
+    @Query("SELECT classes.* FROM class_meetings INNER JOIN classes ON classes.id = class_meetings.classId "
+        + "WHERE class_meetings.userId = :userId AND class_meetings.weekday = :dayOfWeek AND classes.deleted = 0 "
+        + "ORDER BY class_meetings.startTime ASC")
+    List<ClassEntity> getClassesForDay(String userId, int dayOfWeek);
     
     /**
      * Get classes for a specific day (LiveData)
      */
-    @Query("SELECT * FROM classes WHERE userId = :userId AND deleted = 0 AND days LIKE '%' || :dayOfWeek || '%' ORDER BY startTime ASC")
-    LiveData<List<ClassEntity>> getClassesForDayLiveData(String userId, String dayOfWeek);
+    @Query("SELECT classes.* FROM class_meetings INNER JOIN classes ON classes.id = class_meetings.classId "
+        + "WHERE class_meetings.userId = :userId AND class_meetings.weekday = :dayOfWeek AND classes.deleted = 0 "
+        + "ORDER BY class_meetings.startTime ASC")
+    LiveData<List<ClassEntity>> getClassesForDayLiveData(String userId, int dayOfWeek);
+    
+    /**
+     * Get list rows for the classes meeting on a day (LiveData)
+     */
+    @Query("SELECT " + ROW_COLUMNS + " FROM class_meetings INNER JOIN classes ON classes.id = class_meetings.classId "
+        + "WHERE class_meetings.userId = :userId AND class_meetings.weekday = :dayOfWeek AND classes.deleted = 0 "
+        + "ORDER BY class_meetings.startTime ASC")
+    LiveData<List<ClassRow>> getRowsForDay(String userId, int dayOfWeek);
+    
+    /**
+     * Get the first class on a day that has not ended by the given minute of day
+     */
+    @Query("SELECT " + ROW_COLUMNS + " FROM class_meetings INNER JOIN classes ON classes.id = class_meetings.classId "
+        + "WHERE class_meetings.userId = :userId AND class_meetings.weekday = :dayOfWeek "
+        + "AND class_meetings.endTime > :minuteOfDay AND classes.deleted = 0 "
+        + "ORDER BY class_meetings.startTime ASC LIMIT 1")
+    ClassRow getNextClassForDay(String userId, int dayOfWeek, int minuteOfDay);
+    
+    /**
+     * Get a day's classes with their meetings (LiveData)
+     */
+    @Transaction
+    @Query("SELECT classes.* FROM class_meetings INNER JOIN classes ON classes.id = class_meetings.classId "
+        + "WHERE class_meetings.userId = :userId AND class_meetings.weekday = :dayOfWeek AND classes.deleted = 0 "
+        + "ORDER BY class_meetings.startTime ASC")
+    LiveData<List<ClassWithMeetings>> getScheduleForDay(String userId, int dayOfWeek);
+    
+    /**
+     * Get classes on a day whose start falls in [fromMinute, toMinute)
+     */
+    @Query("SELECT classes.* FROM class_meetings INNER JOIN classes ON classes.id = class_meetings.classId "
+        + "WHERE class_meetings.userId = :userId AND class_meetings.weekday = :dayOfWeek "
+        + "AND class_meetings.startTime >= :fromMinute AND class_meetings.startTime < :toMinute "
+        + "AND classes.deleted = 0 ORDER BY class_meetings.startTime ASC")
+    List<ClassEntity> getClassesStartingBetween(String userId, int dayOfWeek, int fromMinute, int toMinute);
+    
+    // Meeting operations
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertMeetings(List<ClassMeetingEntity> meetings);
+    
+    @Query("DELETE FROM class_meetings WHERE classId = :classId")
+    void deleteMeetingsForClass(String classId);
+    
+    /**
+     * Insert or replace a class and rebuild its meetings in one transaction
+     */
+    @Transaction
+    default void save(ClassEntity classEntity) {
+        insert(classEntity);
+        deleteMeetingsForClass(classEntity.getId());
+        insertMeetings(ClassMeetingEntity.forClass(classEntity));
+    }
     
     /**
      * Get unsynced classes (for sync operation)
@@ -85,12 +158,24 @@ public interface ClassDao {
     @Query("SELECT * FROM classes WHERE userId = :userId AND synced = 0")
     List<ClassEntity> getUnsyncedClasses(String userId);
     
+    /**
+     * Drop classes deleted remotely, keeping any with unpushed local edits
+     */
+    @Query("DELETE FROM classes WHERE id IN (:ids) AND synced = 1")
+    void deleteSyncedByIds(List<String> ids);
+    
     /**
      * Mark class as synced
      */
     @Query("UPDATE classes SET synced = 1 WHERE id = :id")
     void markSynced(String id);
     
+    /**
+     * Mark class as synced only if it was not edited again since it was read for push
+     */
+    @Query("UPDATE classes SET synced = 1 WHERE id = :id AND updatedAt = :updatedAt")
+    void markSyncedIfUnchanged(String id, long updatedAt);
+    
     /**
      * Mark all classes for user as synced
      */
@@ -116,8 +201,41 @@ public interface ClassDao {
     List<ClassEntity> getAllIncludingDeleted(String userId);
     
     /**
-     * Hard delete classes that are marked as deleted and synced
+     * Hard delete up to limit tombstones whose remote delete was acknowledged before the cutoff
+     */
+    @Query("DELETE FROM classes WHERE id IN (SELECT id FROM classes WHERE deleted = 1 AND synced = 1 AND updatedAt < :before LIMIT :limit)")
+    int purgeAcknowledgedTombstones(long before, int limit);
+    
+    /**
+     * Get tombstones that are neither acknowledged nor queued for a remote delete
+     */
+    @Query("SELECT * FROM classes WHERE deleted = 1 AND synced = 0 AND id NOT IN (SELECT docId FROM outbox WHERE collection = 'classes') LIMIT :limit")
+    List<ClassEntity> getUnqueuedTombstones(int limit);
+    
+    /**
+     * Get local id/updatedAt stamps for a set of ids
+     */
+    @Query("SELECT id, updatedAt FROM classes WHERE id IN (:ids)")
+    List<SyncStamp> getSyncStamps(List<String> ids);
+    
+    /**
+     * Last-write-wins merge of remote classes in a single transaction.
+     * Replacing a class cascades to its meetings, so the winners and then
+     * all of their rebuilt meetings are each written in one batch.
+     * @return the remote rows that won and were written
      */
-    @Query("DELETE FROM classes WHERE deleted = 1 AND synced = 1")
-    void cleanupDeletedAndSynced();
+    @Transaction
+    default List<ClassEntity> mergeRemote(List<ClassEntity> remote) {
+        List<ClassEntity> winners = SyncStamp.selectNewer(
+            remote, ClassEntity::getId, ClassEntity::getUpdatedAt, this::getSyncStamps);
+        if (!winners.isEmpty()) {
+            insertAll(winners);
+            List<ClassMeetingEntity> meetings = new ArrayList<>();
+            for (ClassEntity winner : winners) {
+                meetings.addAll(ClassMeetingEntity.forClass(winner));
+            }
+            insertMeetings(meetings);
+        }
+        return winners;
+    }
 }
@@ -0,0 +1,75 @@
+package com.studenthub.data.local.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.studenthub.data.local.entity.FocusSessionEntity;
+import com.studenthub.data.local.model.FocusStats;
+
+/**
+ * Data Access Object for focus session history and its rollups.
+ * Session types in SQL: 0 = focus, 2 = long break (see {@link FocusSessionEntity}).
+ */
+@Dao
+public interface FocusDao {
+
+    @Insert
+    long insertSession(FocusSessionEntity session);
+
+    /**
+     * Create the day's row on first use, continuing yesterday's streak.
+     */
+    @Query("INSERT OR IGNORE INTO focus_daily_stats (userId, epochDay, focusMs, sessionCount, streak) "
+        + "VALUES (:userId, :epochDay, 0, 0, 1 + IFNULL((SELECT streak FROM focus_daily_stats "
+        + "WHERE userId = :userId AND epochDay = :epochDay - 1), 0))")
+    void ensureDailyStats(String userId, long epochDay);
+
+    @Query("UPDATE focus_daily_stats SET focusMs = focusMs + :focusMs, sessionCount = sessionCount + :sessions "
+        + "WHERE userId = :userId AND epochDay = :epochDay")
+    void addDailyStats(String userId, long epochDay, long focusMs, int sessions);
+
+    @Query("INSERT OR IGNORE INTO focus_weekly_stats (userId, weekStart, focusMs, sessionCount) "
+        + "VALUES (:userId, :weekStart, 0, 0)")
+    void ensureWeeklyStats(String userId, long weekStart);
+
+    @Query("UPDATE focus_weekly_stats SET focusMs = focusMs + :focusMs, sessionCount = sessionCount + :sessions "
+        + "WHERE userId = :userId AND weekStart = :weekStart")
+    void addWeeklyStats(String userId, long weekStart, long focusMs, int sessions);
+
+    /**
+     * Store a session and fold focus time into the day and week it ended in.
+     */
+    @Transaction
+    default void recordSession(FocusSessionEntity session, long epochDay, long weekStart) {
+        insertSession(session);
+        String userId = session.getUserId();
+        if (userId == null || !session.isFocus() || session.getDurationMs() <= 0) return;
+
+        int sessions = session.isCompleted() ? 1 : 0;
+        ensureDailyStats(userId, epochDay);
+        addDailyStats(userId, epochDay, session.getDurationMs(), sessions);
+        ensureWeeklyStats(userId, weekStart);
+        addWeeklyStats(userId, weekStart, session.getDurationMs(), sessions);
+    }
+
+    /**
+     * Completed focus sessions since the last long break.
+     */
+    @Query("SELECT COUNT(*) FROM focus_sessions WHERE userId = :userId AND type = 0 AND completed = 1 "
+        + "AND endedAt > IFNULL((SELECT MAX(endedAt) FROM focus_sessions WHERE userId = :userId AND type = 2), 0)")
+    int getFocusCountSinceLongBreak(String userId);
+
+    /**
+     * Today's and this week's totals plus the current streak, each a single row lookup.
+     */
+    @Query("SELECT "
+        + "IFNULL((SELECT focusMs FROM focus_daily_stats WHERE userId = :userId AND epochDay = :today), 0) AS todayFocusMs, "
+        + "IFNULL((SELECT sessionCount FROM focus_daily_stats WHERE userId = :userId AND epochDay = :today), 0) AS todaySessions, "
+        + "IFNULL((SELECT focusMs FROM focus_weekly_stats WHERE userId = :userId AND weekStart = :weekStart), 0) AS weekFocusMs, "
+        + "IFNULL((SELECT streak FROM focus_daily_stats WHERE userId = :userId AND epochDay >= :today - 1 "
+        + "ORDER BY epochDay DESC LIMIT 1), 0) AS streak")
+    LiveData<FocusStats> getStats(String userId, long today, long weekStart);
+}
@@ -0,0 +1,70 @@
+package com.studenthub.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Update;
+
+import com.studenthub.data.local.entity.OutboxEntity;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Data Access Object for OutboxEntity.
+ * Queues remote mutations and tracks their retry state.
+ */
+@Dao
+public interface OutboxDao {
+
+    @Insert
+    void insert(OutboxEntity op);
+
+    @Update
+    void update(OutboxEntity op);
+
+    @Query("SELECT * FROM outbox WHERE collection = :collection AND docId = :docId")
+    OutboxEntity getForDocument(String collection, String docId);
+
+    @Query("SELECT * FROM outbox WHERE userId = :userId ORDER BY id ASC")
+    List<OutboxEntity> getPending(String userId);
+
+    @Query("SELECT * FROM outbox WHERE userId = :userId AND nextAttemptAt <= :now ORDER BY id ASC")
+    List<OutboxEntity> getDue(String userId, long now);
+
+    @Query("SELECT MIN(nextAttemptAt) FROM outbox WHERE userId = :userId")
+    Long getNextAttemptAt(String userId);
+
+    @Query("SELECT COUNT(*) FROM outbox WHERE userId = :userId")
+    int getPendingCount(String userId);
+
+    @Query("DELETE FROM outbox WHERE id = :id AND revision = :revision")
+    void deleteIfUnchanged(long id, int revision);
+
+    @Query("UPDATE outbox SET attempts = :attempts, nextAttemptAt = :nextAttemptAt WHERE id = :id AND revision = :revision")
+    void scheduleRetryIfUnchanged(long id, int revision, int attempts, long nextAttemptAt);
+
+    /**
+     * Turn a patch whose document is gone remotely into a whole-document upsert.
+     */
+    @Query("UPDATE outbox SET op = 'UPSERT', fields = NULL WHERE id = :id AND revision = :revision AND op = 'PATCH'")
+    void promoteToUpsertIfUnchanged(long id, int revision);
+
+    /**
+     * Queue a mutation, collapsing it into the pending one for the same document.
+     * Run it in the same transaction that writes the local row.
+     *
+     * @param fields changed field names for {@link OutboxEntity#OP_PATCH}, otherwise null
+     */
+    @Transaction
+    default void enqueue(String userId, String collection, String docId, String op, Collection<String> fields) {
+        OutboxEntity pending = getForDocument(collection, docId);
+        if (pending == null) {
+            insert(new OutboxEntity(userId, collection, docId, op, fields));
+        } else {
+            pending.collapse(op, fields);
+            update(pending);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.studenthub.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import com.studenthub.data.local.model.SearchResult;
+
+import java.util.List;
+
+/**
+ * Full-text queries over the FTS4 shadow tables. Each match is joined back to
+ * its content row by rowid to filter by user and tombstone. CROSS JOIN pins
+ * that order: without statistics SQLite may instead walk the user's rows by
+ * index and re-run the MATCH for every one of them.
+ * Result types match {@link SearchResult}: 0 = assignment, 1 = task, 2 = class.
+ */
+@Dao
+public interface SearchDao {
+
+    @Query("SELECT 0 AS type, a.id AS id, a.title AS title, a.course AS subtitle, "
+        + "matchinfo(assignments_fts, 'pcx') AS matchInfo "
+        + "FROM assignments_fts CROSS JOIN assignments a ON a.rowid = assignments_fts.rowid "
+        + "WHERE assignments_fts MATCH :match AND a.userId = :userId AND a.deleted = 0 "
+        + "LIMIT :limit")
+    List<SearchResult> searchAssignments(String userId, String match, int limit);
+
+    @Query("SELECT 1 AS type, t.id AS id, t.title AS title, t.tags AS subtitle, "
+        + "matchinfo(tasks_fts, 'pcx') AS matchInfo "
+        + "FROM tasks_fts CROSS JOIN tasks t ON t.rowid = tasks_fts.rowid "
+        + "WHERE tasks_fts MATCH :match AND t.userId = :userId AND t.deleted = 0 "
+        + "LIMIT :limit")
+    List<SearchResult> searchTasks(String userId, String match, int limit);
+
+    @Query("SELECT 2 AS type, c.id AS id, c.name AS title, c.building AS subtitle, "
+        + "matchinfo(classes_fts, 'pcx') AS matchInfo "
+        + "FROM classes_fts CROSS JOIN classes c ON c.rowid = classes_fts.rowid "
+        + "WHERE classes_fts MATCH :match AND c.userId = :userId AND c.deleted = 0 "
+        + "LIMIT :limit")
+    List<SearchResult> searchClasses(String userId, String match, int limit);
+}
@@ -1,24 +1,39 @@
 package com.studenthub.data.local.dao;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
+import com.studenthub.data.local.entity.TagEntity;
 import com.studenthub.data.local.entity.TaskEntity;
+import com.studenthub.data.local.model.TaskRow;
+import com.studenthub.data.local.model.SyncStamp;
+import com.studenthub.data.local.model.TaskSyncStamp;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for TaskEntity.
  * Provides database operations for task management.
+ *
+ * Task writes that can change a task's tags or tombstone it go through the
+ * {@code @Transaction} methods below, which keep task_tags and tag counts in step.
  */
 @Dao
 public interface TaskDao {
 
+    // Columns of a TaskRow
+    String ROW_COLUMNS = "id, title, completed";
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(TaskEntity task);
 
@@ -28,6 +43,9 @@ public interface TaskDao {
     @Update
     void update(TaskEntity task);
 
+    @Update
+    void updateAll(List<TaskEntity> tasks);
+
     @Delete
     void delete(TaskEntity task);
 
@@ -49,6 +67,12 @@ public interface TaskDao {
     @Query("SELECT * FROM tasks WHERE userId = :userId AND deleted = 0 AND completed = 0 ORDER BY createdAt DESC")
     List<TaskEntity> getIncompleteForUserSync(String userId);
 
+    @Query("SELECT * FROM tasks WHERE userId = :userId AND deleted = 0 ORDER BY completed ASC, createdAt DESC")
+    PagingSource<Integer, TaskEntity> getAllForUserPaged(String userId);
+
+    @Query("SELECT * FROM tasks WHERE userId = :userId AND deleted = 0 AND completed = 0 ORDER BY createdAt DESC")
+    PagingSource<Integer, TaskEntity> getIncompleteForUserPaged(String userId);
+
     @Query("SELECT * FROM tasks WHERE id = :id")
     TaskEntity getById(String id);
 
@@ -61,12 +85,35 @@ public interface TaskDao {
     @Query("SELECT * FROM tasks WHERE userId = :userId AND deleted = 0 AND completed = 0 ORDER BY createdAt DESC LIMIT :limit")
     List<TaskEntity> getRecentIncompleteTasks(String userId, int limit);
 
+    @Query("SELECT " + ROW_COLUMNS + " FROM tasks WHERE userId = :userId AND deleted = 0 AND completed = 0 ORDER BY createdAt DESC LIMIT :limit")
+    List<TaskRow> getRecentIncompleteRows(String userId, int limit);
+
     @Query("SELECT * FROM tasks WHERE userId = :userId AND synced = 0")
     List<TaskEntity> getUnsyncedTasks(String userId);
 
+    @Query("SELECT id FROM tasks WHERE id IN (:ids) AND synced = 1")
+    List<String> getSyncedIds(List<String> ids);
+
+    @Query("DELETE FROM tasks WHERE id IN (:ids) AND synced = 1")
+    void deleteSyncedRows(List<String> ids);
+
+    /**
+     * Drop tasks deleted remotely, keeping any with unpushed local edits
+     */
+    @Transaction
+    default void deleteSyncedByIds(List<String> ids) {
+        for (String id : getSyncedIds(ids)) {
+            unlinkTags(id);
+        }
+        deleteSyncedRows(ids);
+    }
+
     @Query("UPDATE tasks SET synced = 1 WHERE id = :id")
     void markSynced(String id);
 
+    @Query("UPDATE tasks SET synced = 1 WHERE id = :id AND updatedAt = :updatedAt")
+    void markSyncedIfUnchanged(String id, long updatedAt);
+
     @Query("UPDATE tasks SET synced = 1 WHERE userId = :userId")
     void markAllSynced(String userId);
 
@@ -74,7 +121,16 @@ public interface TaskDao {
     void setCompleted(String id, boolean completed, long timestamp);
 
     @Query("UPDATE tasks SET deleted = 1, synced = 0, updatedAt = :timestamp WHERE id = :id")
-    void softDelete(String id, long timestamp);
+    void markDeleted(String id, long timestamp);
+
+    /**
+     * Soft delete a task; tombstones carry no tags
+     */
+    @Transaction
+    default void softDelete(String id, long timestamp) {
+        unlinkTags(id);
+        markDeleted(id, timestamp);
+    }
 
     @Query("SELECT COUNT(*) FROM tasks WHERE userId = :userId AND deleted = 0 AND completed = 0")
     int getIncompleteCountForUser(String userId);
@@ -82,6 +138,133 @@ public interface TaskDao {
     @Query("SELECT * FROM tasks WHERE userId = :userId")
     List<TaskEntity> getAllIncludingDeleted(String userId);
 
-    @Query("DELETE FROM tasks WHERE deleted = 1 AND synced = 1")
-    void cleanupDeletedAndSynced();
+    @Query("DELETE FROM tasks WHERE id IN (SELECT id FROM tasks WHERE deleted = 1 AND synced = 1 AND updatedAt < :before LIMIT :limit)")
+    int purgeAcknowledgedTombstones(long before, int limit);
+
+    @Query("SELECT * FROM tasks WHERE deleted = 1 AND synced = 0 AND id NOT IN (SELECT docId FROM outbox WHERE collection = 'tasks') LIMIT :limit")
+    List<TaskEntity> getUnqueuedTombstones(int limit);
+
+    @Query("SELECT id, updatedAt FROM tasks WHERE id IN (:ids)")
+    List<SyncStamp> getSyncStamps(List<String> ids);
+
+    @Query("SELECT id, updatedAt, userId, tags, deleted FROM tasks WHERE id IN (:ids)")
+    List<TaskSyncStamp> getTaskSyncStamps(List<String> ids);
+
+    /**
+     * Last-write-wins merge of remote tasks in a single transaction.
+     *
+     * Winners are written in two batches: rows already held locally are
+     * updated in place, since replacing them would cascade away their tag
+     * links, and new rows are inserted. Tag links are rebuilt only for rows
+     * whose tags, owner or tombstone state changed.
+     * @return the remote rows that won and were written
+     */
+    @Transaction
+    default List<TaskEntity> mergeRemote(List<TaskEntity> remote) {
+        Map<String, TaskSyncStamp> local = new HashMap<>();
+        List<TaskEntity> winners = SyncStamp.selectNewer(
+            remote, TaskEntity::getId, TaskEntity::getUpdatedAt, ids -> {
+                List<TaskSyncStamp> stamps = getTaskSyncStamps(ids);
+                for (TaskSyncStamp stamp : stamps) {
+                    local.put(stamp.id, stamp);
+                }
+                return new ArrayList<>(stamps);
+            });
+
+        List<TaskEntity> updated = new ArrayList<>();
+        List<TaskEntity> inserted = new ArrayList<>();
+        List<TaskEntity> relinked = new ArrayList<>();
+        for (TaskEntity winner : winners) {
+            TaskSyncStamp stamp = local.get(winner.getId());
+            if (stamp == null) {
+                inserted.add(winner);
+                relinked.add(winner);
+            } else {
+                updated.add(winner);
+                if (!stamp.hasSameTagsAs(winner)) {
+                    unlinkTags(winner.getId());
+                    relinked.add(winner);
+                }
+            }
+        }
+        if (!updated.isEmpty()) updateAll(updated);
+        if (!inserted.isEmpty()) insertAll(inserted);
+        for (TaskEntity task : relinked) {
+            linkTags(task);
+        }
+        return winners;
+    }
+
+    // Tag operations
+
+    /**
+     * Non-deleted tasks carrying a tag, by index lookup on the tag name
+     */
+    @Query("SELECT tasks.* FROM tags INNER JOIN task_tags ON task_tags.tagId = tags.id "
+        + "INNER JOIN tasks ON tasks.id = task_tags.taskId "
+        + "WHERE tags.userId = :userId AND tags.name = :tag AND tasks.deleted = 0 "
+        + "ORDER BY tasks.completed ASC, tasks.createdAt DESC")
+    LiveData<List<TaskEntity>> getTasksWithTag(String userId, String tag);
+
+    /**
+     * Tag cloud: every tag in use with its task count, most used first
+     */
+    @Query("SELECT * FROM tags WHERE userId = :userId AND taskCount > 0 ORDER BY taskCount DESC, name ASC")
+    LiveData<List<TagEntity>> getTagCounts(String userId);
+
+    @Query("INSERT OR IGNORE INTO tags (userId, name, taskCount) VALUES (:userId, :name, 0)")
+    void ensureTag(String userId, String name);
+
+    @Query("SELECT id FROM tags WHERE userId = :userId AND name = :name")
+    long getTagId(String userId, String name);
+
+    @Query("INSERT OR IGNORE INTO task_tags (taskId, tagId) VALUES (:taskId, :tagId)")
+    void insertTaskTag(String taskId, long tagId);
+
+    @Query("UPDATE tags SET taskCount = taskCount + 1 WHERE id = :tagId")
+    void incrementTagCount(long tagId);
+
+    @Query("UPDATE tags SET taskCount = taskCount - 1 WHERE id IN (SELECT tagId FROM task_tags WHERE taskId = :taskId)")
+    void decrementTagCountsForTask(String taskId);
+
+    @Query("DELETE FROM tags WHERE taskCount <= 0 AND id IN (SELECT tagId FROM task_tags WHERE taskId = :taskId)")
+    void deleteUnusedTagsOfTask(String taskId);
+
+    @Query("DELETE FROM task_tags WHERE taskId = :taskId")
+    void deleteTaskTags(String taskId);
+
+    /**
+     * Remove a task's tag links, dropping tags no other task uses
+     */
+    @Transaction
+    default void unlinkTags(String taskId) {
+        decrementTagCountsForTask(taskId);
+        deleteUnusedTagsOfTask(taskId);
+        deleteTaskTags(taskId);
+    }
+
+    /**
+     * Link a live task to its parsed tags, creating any that are new
+     */
+    @Transaction
+    default void linkTags(TaskEntity task) {
+        String userId = task.getUserId();
+        if (task.isDeleted() || userId == null) return;
+        for (String name : TagEntity.parseTags(task.getTags())) {
+            ensureTag(userId, name);
+            long tagId = getTagId(userId, name);
+            insertTaskTag(task.getId(), tagId);
+            incrementTagCount(tagId);
+        }
+    }
+
+    /**
+     * Insert or replace a task and rebuild its tag links in one transaction
+     */
+    @Transaction
+    default void save(TaskEntity task) {
+        unlinkTags(task.getId());
+        insert(task);
+        linkTags(task);
+    }
 }
\ No newline at end of file
@@ -1,17 +1,37 @@
 package com.studenthub.data.local.database;
 
 import android.content.Context;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.studenthub.data.local.dao.AssignmentDao;
 import com.studenthub.data.local.dao.ClassDao;
+import com.studenthub.data.local.dao.FocusDao;
+import com.studenthub.data.local.dao.OutboxDao;
+import com.studenthub.data.local.dao.SearchDao;
 import com.studenthub.data.local.dao.TaskDao;
 import com.studenthub.data.local.entity.AssignmentEntity;
+import com.studenthub.data.local.entity.AssignmentFtsEntity;
 import com.studenthub.data.local.entity.ClassEntity;
+import com.studenthub.data.local.entity.ClassFtsEntity;
+import com.studenthub.data.local.entity.ClassMeetingEntity;
+import com.studenthub.data.local.entity.FocusDailyStatsEntity;
+import com.studenthub.data.local.entity.FocusSessionEntity;
+import com.studenthub.data.local.entity.FocusWeeklyStatsEntity;
+import com.studenthub.data.local.entity.OutboxEntity;
+import com.studenthub.data.local.entity.TagEntity;
 import com.studenthub.data.local.entity.TaskEntity;
+import com.studenthub.data.local.entity.TaskFtsEntity;
+import com.studenthub.data.local.entity.TaskTagEntity;
+import com.studenthub.util.PreferencesManager;
 
 /**
  * Room database for StudentHub app.
@@ -21,10 +41,20 @@ import com.studenthub.data.local.entity.TaskEntity;
     entities = {
         ClassEntity.class,
         AssignmentEntity.class,
-        TaskEntity.class
+        TaskEntity.class,
+        OutboxEntity.class,
+        ClassMeetingEntity.class,
+        FocusSessionEntity.class,
+        FocusDailyStatsEntity.class,
+        FocusWeeklyStatsEntity.class,
+        AssignmentFtsEntity.class,
+        TaskFtsEntity.class,
+        ClassFtsEntity.class,
+        TagEntity.class,
+        TaskTagEntity.class
     },
-    version = 1,
-    exportSchema = false
+    version = 7,
+    exportSchema = true
 )
 public abstract class AppDatabase extends RoomDatabase {
     
@@ -35,6 +65,233 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract ClassDao classDao();
     public abstract AssignmentDao assignmentDao();
     public abstract TaskDao taskDao();
+    public abstract OutboxDao outboxDao();
+    public abstract FocusDao focusDao();
+    public abstract SearchDao searchDao();
+    
+    // Full-text index and its content table
+    private static final String[][] SEARCH_INDEXES = {
+        {"assignments_fts", "assignments"},
+        {"tasks_fts", "tasks"},
+        {"classes_fts", "classes"}
+    };
+    
+    /**
+     * v2: outbox of pending remote mutations. Rows that were dirty before the
+     * upgrade are queued as whole-document upserts (or deletes for tombstones).
+     */
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `outbox` ("
+                + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                + "`userId` TEXT, "
+                + "`collection` TEXT NOT NULL, "
+                + "`docId` TEXT NOT NULL, "
+                + "`op` TEXT NOT NULL, "
+                + "`fields` TEXT, "
+                + "`revision` INTEGER NOT NULL, "
+                + "`attempts` INTEGER NOT NULL, "
+                + "`nextAttemptAt` INTEGER NOT NULL)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_outbox_collection_docId` "
+                + "ON `outbox` (`collection`, `docId`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_outbox_userId` ON `outbox` (`userId`)");
+            
+            for (String table : new String[] {"classes", "assignments", "tasks"}) {
+                db.execSQL("INSERT OR IGNORE INTO `outbox` "
+                    + "(`userId`, `collection`, `docId`, `op`, `fields`, `revision`, `attempts`, `nextAttemptAt`) "
+                    + "SELECT userId, '" + table + "', id, "
+                    + "CASE WHEN deleted = 1 THEN 'DELETE' ELSE 'UPSERT' END, NULL, 0, 0, 0 "
+                    + "FROM `" + table + "` WHERE synced = 0");
+            }
+        }
+    };
+    
+    /**
+     * v3: composite indexes for the per-user list, due-date and sync queries.
+     * Names and column orders match what Room generates from the entity annotations.
+     */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_classes_userId_deleted_startTime` ON `classes` (`userId`, `deleted`, `startTime`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_classes_userId_synced` ON `classes` (`userId`, `synced`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_classes_deleted_synced_updatedAt` ON `classes` (`deleted`, `synced`, `updatedAt`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_assignments_userId_deleted_completed_dueDate` ON `assignments` (`userId`, `deleted`, `completed`, `dueDate`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_assignments_userId_deleted_dueDate` ON `assignments` (`userId`, `deleted`, `dueDate`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_assignments_userId_synced` ON `assignments` (`userId`, `synced`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_assignments_deleted_synced_updatedAt` ON `assignments` (`deleted`, `synced`, `updatedAt`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_userId_deleted_completed_createdAt` ON `tasks` (`userId` ASC, `deleted` ASC, `completed` ASC, `createdAt` DESC)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_userId_deleted_completed_dueDate` ON `tasks` (`userId`, `deleted`, `completed`, `dueDate`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_userId_synced` ON `tasks` (`userId`, `synced`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_deleted_synced_updatedAt` ON `tasks` (`deleted`, `synced`, `updatedAt`)");
+        }
+    };
+    
+    /**
+     * v4: normalized class meetings, split out of the comma-separated days column.
+     */
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `class_meetings` ("
+                + "`classId` TEXT NOT NULL, "
+                + "`weekday` INTEGER NOT NULL, "
+                + "`userId` TEXT, "
+                + "`startTime` INTEGER NOT NULL, "
+                + "`endTime` INTEGER NOT NULL, "
+                + "PRIMARY KEY(`classId`, `weekday`), "
+                + "FOREIGN KEY(`classId`) REFERENCES `classes`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_class_meetings_userId_weekday_startTime` "
+                + "ON `class_meetings` (`userId`, `weekday`, `startTime`)");
+            
+            try (Cursor cursor = db.query("SELECT id, userId, days, startTime, endTime FROM classes")) {
+                while (cursor.moveToNext()) {
+                    for (int day : ClassMeetingEntity.parseDays(cursor.getString(2))) {
+                        ContentValues values = new ContentValues();
+                        values.put("classId", cursor.getString(0));
+                        values.put("weekday", day);
+                        values.put("userId", cursor.getString(1));
+                        values.put("startTime", cursor.getInt(3));
+                        values.put("endTime", cursor.getInt(4));
+                        db.insert("class_meetings", SQLiteDatabase.CONFLICT_IGNORE, values);
+                    }
+                }
+            }
+        }
+    };
+    
+    /**
+     * v5: focus session history with daily and weekly rollups.
+     */
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `focus_sessions` ("
+                + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                + "`userId` TEXT, "
+                + "`type` INTEGER NOT NULL, "
+                + "`startedAt` INTEGER NOT NULL, "
+                + "`endedAt` INTEGER NOT NULL, "
+                + "`durationMs` INTEGER NOT NULL, "
+                + "`completed` INTEGER NOT NULL, "
+                + "`taskId` TEXT)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_focus_sessions_userId_type_endedAt` "
+                + "ON `focus_sessions` (`userId`, `type`, `endedAt`)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `focus_daily_stats` ("
+                + "`userId` TEXT NOT NULL, "
+                + "`epochDay` INTEGER NOT NULL, "
+                + "`focusMs` INTEGER NOT NULL, "
+                + "`sessionCount` INTEGER NOT NULL, "
+                + "`streak` INTEGER NOT NULL, "
+                + "PRIMARY KEY(`userId`, `epochDay`))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `focus_weekly_stats` ("
+                + "`userId` TEXT NOT NULL, "
+                + "`weekStart` INTEGER NOT NULL, "
+                + "`focusMs` INTEGER NOT NULL, "
+                + "`sessionCount` INTEGER NOT NULL, "
+                + "PRIMARY KEY(`userId`, `weekStart`))");
+        }
+    };
+    
+    /**
+     * v6: FTS4 search indexes over assignments, tasks and classes. Table and
+     * trigger SQL match what Room generates for the content-synced entities.
+     */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            createSearchIndex(db, "assignments_fts", "assignments", "title", "course", "notes");
+            createSearchIndex(db, "tasks_fts", "tasks", "title", "tags");
+            createSearchIndex(db, "classes_fts", "classes", "name", "building", "room", "notes");
+            rebuildSearchIndexes(db);
+        }
+    };
+    
+    private static void createSearchIndex(SupportSQLiteDatabase db, String table, String content, String... columns) {
+        StringBuilder columnDefs = new StringBuilder();
+        StringBuilder columnNames = new StringBuilder();
+        StringBuilder newValues = new StringBuilder();
+        for (String column : columns) {
+            columnDefs.append('`').append(column).append("` TEXT, ");
+            columnNames.append(", `").append(column).append('`');
+            newValues.append(", NEW.`").append(column).append('`');
+        }
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `" + table + "` USING FTS4("
+            + columnDefs + "tokenize=unicode61, content=`" + content + "`)");
+        
+        String prefix = "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_" + table + "_";
+        for (String event : new String[] {"UPDATE", "DELETE"}) {
+            db.execSQL(prefix + "BEFORE_" + event + " BEFORE " + event + " ON `" + content + "` BEGIN "
+                + "DELETE FROM `" + table + "` WHERE `docid`=OLD.`rowid`; END");
+        }
+        for (String event : new String[] {"UPDATE", "INSERT"}) {
+            db.execSQL(prefix + "AFTER_" + event + " AFTER " + event + " ON `" + content + "` BEGIN "
+                + "INSERT INTO `" + table + "`(`docid`" + columnNames + ") "
+                + "VALUES (NEW.`rowid`" + newValues + "); END");
+        }
+    }
+    
+    /**
+     * Room's sync triggers miss REPLACE inserts: the replaced row is removed
+     * without firing delete triggers, which would leave its terms in the index.
+     * Drop the old entry before every insert that may replace a row.
+     */
+    private static void createReplaceTriggers(SupportSQLiteDatabase db) {
+        for (String[] index : SEARCH_INDEXES) {
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `" + index[0] + "_before_replace` "
+                + "BEFORE INSERT ON `" + index[1] + "` BEGIN "
+                + "DELETE FROM `" + index[0] + "` WHERE `docid` = "
+                + "(SELECT `rowid` FROM `" + index[1] + "` WHERE `id` = NEW.`id`); END");
+        }
+    }
+    
+    /**
+     * Re-derive the search indexes from their content tables.
+     */
+    private static void rebuildSearchIndexes(SupportSQLiteDatabase db) {
+        for (String[] index : SEARCH_INDEXES) {
+            db.execSQL("INSERT INTO `" + index[0] + "`(`" + index[0] + "`) VALUES('rebuild')");
+        }
+    }
+    
+    /**
+     * v7: normalized tags and task links, exploded from the comma-separated
+     * tags column. Counts cover non-deleted tasks only.
+     */
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `tags` ("
+                + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                + "`userId` TEXT NOT NULL, "
+                + "`name` TEXT NOT NULL COLLATE NOCASE, "
+                + "`taskCount` INTEGER NOT NULL)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_tags_userId_name` ON `tags` (`userId`, `name`)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `task_tags` ("
+                + "`taskId` TEXT NOT NULL, "
+                + "`tagId` INTEGER NOT NULL, "
+                + "PRIMARY KEY(`taskId`, `tagId`), "
+                + "FOREIGN KEY(`taskId`) REFERENCES `tasks`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                + "FOREIGN KEY(`tagId`) REFERENCES `tags`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_task_tags_tagId` ON `task_tags` (`tagId`)");
+            
+            try (Cursor cursor = db.query("SELECT id, userId, tags FROM tasks "
+                    + "WHERE deleted = 0 AND userId IS NOT NULL AND tags IS NOT NULL AND tags != ''")) {
+                while (cursor.moveToNext()) {
+                    for (String name : TagEntity.parseTags(cursor.getString(2))) {
+                        db.execSQL("INSERT OR IGNORE INTO `tags` (`userId`, `name`, `taskCount`) VALUES (?, ?, 0)",
+                            new Object[] {cursor.getString(1), name});
+                        db.execSQL("INSERT INTO `task_tags` (`taskId`, `tagId`) "
+                            + "SELECT ?, id FROM `tags` WHERE `userId` = ? AND `name` = ?",
+                            new Object[] {cursor.getString(0), cursor.getString(1), name});
+                    }
+                }
+            }
+            db.execSQL("UPDATE `tags` SET `taskCount` = "
+                + "(SELECT COUNT(*) FROM `task_tags` WHERE `task_tags`.`tagId` = `tags`.`id`)");
+        }
+    };
     
     /**
      * Get singleton instance of the database.
@@ -48,7 +305,27 @@ public abstract class AppDatabase extends RoomDatabase {
                         AppDatabase.class,
                         DATABASE_NAME
                     )
+                    .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7)
                     .fallbackToDestructiveMigration()
+                    .addCallback(new Callback() {
+                        @Override
+                        public void onCreate(@NonNull SupportSQLiteDatabase db) {
+                            // Empty database: pulled watermarks no longer describe local state
+                            PreferencesManager.getInstance().clearSyncWatermarks();
+                        }
+                        
+                        @Override
+                        public void onDestructiveMigration(@NonNull SupportSQLiteDatabase db) {
+                            PreferencesManager.getInstance().clearSyncWatermarks();
+                        }
+                        
+                        @Override
+                        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                            // Not declarable on the entities; idempotent, so also covers fresh
+                            // and destructively recreated databases
+                            createReplaceTriggers(db);
+                        }
+                    })
                     .build();
                 }
             }
@@ -56,6 +333,38 @@ public abstract class AppDatabase extends RoomDatabase {
         return instance;
     }
     
+    /**
+     * Refresh query planner statistics and reclaim free pages once they make up
+     * a large share of the file. VACUUM rewrites the whole database, so it only
+     * runs from background maintenance. Must be called off the main thread.
+     * VACUUM may renumber the implicit rowids the search indexes are keyed by,
+     * so they are rebuilt afterwards.
+     */
+    public void compactStorage() {
+        SupportSQLiteDatabase sqlite = getOpenHelper().getWritableDatabase();
+        sqlite.query("PRAGMA optimize").close();
+        
+        long pageCount = queryLong(sqlite, "PRAGMA page_count");
+        long freePages = queryLong(sqlite, "PRAGMA freelist_count");
+        if (pageCount > 0 && freePages * 4 >= pageCount) {
+            sqlite.execSQL("VACUUM");
+            sqlite.beginTransaction();
+            try {
+                rebuildSearchIndexes(sqlite);
+                sqlite.setTransactionSuccessful();
+            } finally {
+                sqlite.endTransaction();
+            }
+            sqlite.query("PRAGMA wal_checkpoint(TRUNCATE)").close();
+        }
+    }
+    
+    private static long queryLong(SupportSQLiteDatabase sqlite, String sql) {
+        try (Cursor cursor = sqlite.query(sql)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+    
     /**
      * Clear all data from the database.
      */
@@ -2,13 +2,30 @@ package com.studenthub.data.local.entity;
 
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
 /**
  * Room entity representing an assignment.
  * Stores assignment details including title, course, due date, and priority.
  */
-@Entity(tableName = "assignments")
+@Entity(
+    tableName = "assignments",
+    indices = {
+        // getIncompleteForUser / getUpcomingAssignments: dueDate range within the incomplete set
+        @Index(value = {"userId", "deleted", "completed", "dueDate"}),
+        // getAllForUser: ordered by dueDate across completed and incomplete
+        @Index(value = {"userId", "deleted", "dueDate"}),
+        // getUnsyncedAssignments
+        @Index(value = {"userId", "synced"}),
+        // Tombstone compaction
+        @Index(value = {"deleted", "synced", "updatedAt"})
+    }
+)
 public class AssignmentEntity {
     
     // Priority constants
@@ -147,6 +164,38 @@ public class AssignmentEntity {
         return lastReminderSent < oneDayAgo;
     }
     
+    /**
+     * Get the document fields that differ from a stored copy of this assignment.
+     * Sync bookkeeping fields are not compared.
+     */
+    public Set<String> changedFieldsSince(AssignmentEntity other) {
+        Set<String> changed = new LinkedHashSet<>();
+        if (!Objects.equals(title, other.getTitle())) changed.add("title");
+        if (!Objects.equals(course, other.getCourse())) changed.add("course");
+        if (dueDate != other.getDueDate()) changed.add("dueDate");
+        if (priority != other.getPriority()) changed.add("priority");
+        if (!Objects.equals(notes, other.getNotes())) changed.add("notes");
+        if (completed != other.isCompleted()) changed.add("completed");
+        return changed;
+    }
+    
+    /**
+     * Same assignment, same content and tombstone state. Sync bookkeeping is
+     * ignored so that sync writes don't read as changes to observers.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AssignmentEntity)) return false;
+        AssignmentEntity other = (AssignmentEntity) o;
+        return id.equals(other.id) && deleted == other.deleted && changedFieldsSince(other).isEmpty();
+    }
+    
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+    
     /**
      * Mark entity as updated (for sync tracking)
      */
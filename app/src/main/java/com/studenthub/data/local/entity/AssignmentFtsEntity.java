@@ -0,0 +1,29 @@
+package com.studenthub.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over assignment titles, courses and notes.
+ * External content table: rows live in {@link AssignmentEntity} and Room's
+ * triggers keep the index in step, keyed by the content table's rowid.
+ */
+@Fts4(contentEntity = AssignmentEntity.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "assignments_fts")
+public class AssignmentFtsEntity {
+    
+    private String title;
+    private String course;
+    private String notes;
+    
+    // Getters and Setters
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    
+    public String getCourse() { return course; }
+    public void setCourse(String course) { this.course = course; }
+    
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+}
@@ -2,13 +2,28 @@ package com.studenthub.data.local.entity;
 
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
 /**
  * Room entity representing a class/course in the student's schedule.
  * Stores class details including name, schedule, and location.
  */
-@Entity(tableName = "classes")
+@Entity(
+    tableName = "classes",
+    indices = {
+        // getAllForUser / getClassesForDay: filter, then walk in startTime order
+        @Index(value = {"userId", "deleted", "startTime"}),
+        // getUnsyncedClasses
+        @Index(value = {"userId", "synced"}),
+        // Tombstone compaction
+        @Index(value = {"deleted", "synced", "updatedAt"})
+    }
+)
 public class ClassEntity {
     
     @PrimaryKey
@@ -91,6 +106,13 @@ public class ClassEntity {
      * Get formatted location string (Building + Room)
      */
     public String getLocation() {
+        return formatLocation(building, room);
+    }
+    
+    /**
+     * Format a building and room as "Building, Room 101", skipping blank parts
+     */
+    public static String formatLocation(String building, String room) {
         StringBuilder sb = new StringBuilder();
         if (building != null && !building.isEmpty()) {
             sb.append(building);
@@ -107,8 +129,7 @@ public class ClassEntity {
      * @param dayOfWeek Calendar day constant (1=Sunday, 7=Saturday)
      */
     public boolean occursOnDay(int dayOfWeek) {
-        if (days == null || days.isEmpty()) return false;
-        return days.contains(String.valueOf(dayOfWeek));
+        return ClassMeetingEntity.parseDays(days).contains(dayOfWeek);
     }
     
     /**
@@ -129,6 +150,39 @@ public class ClassEntity {
         return com.studenthub.util.DateTimeUtils.formatTime(hour, minute);
     }
     
+    /**
+     * Get the document fields that differ from a stored copy of this class.
+     * Sync bookkeeping fields are not compared.
+     */
+    public Set<String> changedFieldsSince(ClassEntity other) {
+        Set<String> changed = new LinkedHashSet<>();
+        if (!Objects.equals(name, other.getName())) changed.add("name");
+        if (!Objects.equals(days, other.getDays())) changed.add("days");
+        if (startTime != other.getStartTime()) changed.add("startTime");
+        if (endTime != other.getEndTime()) changed.add("endTime");
+        if (!Objects.equals(building, other.getBuilding())) changed.add("building");
+        if (!Objects.equals(room, other.getRoom())) changed.add("room");
+        if (!Objects.equals(notes, other.getNotes())) changed.add("notes");
+        return changed;
+    }
+    
+    /**
+     * Same class, same content and tombstone state. Sync bookkeeping is
+     * ignored so that sync writes don't read as changes to observers.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ClassEntity)) return false;
+        ClassEntity other = (ClassEntity) o;
+        return id.equals(other.id) && deleted == other.deleted && changedFieldsSince(other).isEmpty();
+    }
+    
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+    
     /**
      * Mark entity as updated (for sync tracking)
      */
@@ -0,0 +1,32 @@
+package com.studenthub.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over class names, buildings, rooms and notes.
+ * External content table backed by {@link ClassEntity}.
+ */
+@Fts4(contentEntity = ClassEntity.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "classes_fts")
+public class ClassFtsEntity {
+    
+    private String name;
+    private String building;
+    private String room;
+    private String notes;
+    
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getBuilding() { return building; }
+    public void setBuilding(String building) { this.building = building; }
+    
+    public String getRoom() { return room; }
+    public void setRoom(String room) { this.room = room; }
+    
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+}
@@ -0,0 +1,123 @@
+package com.studenthub.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Room entity representing one weekly meeting of a class.
+ * Derived from {@link ClassEntity#getDays()} on every class write so day and
+ * time-range lookups can use an index instead of scanning the days string.
+ */
+@Entity(
+    tableName = "class_meetings",
+    primaryKeys = {"classId", "weekday"},
+    foreignKeys = @ForeignKey(
+        entity = ClassEntity.class,
+        parentColumns = "id",
+        childColumns = "classId",
+        onDelete = ForeignKey.CASCADE
+    ),
+    indices = {
+        // Day schedule and time-range queries
+        @Index(value = {"userId", "weekday", "startTime"})
+    }
+)
+public class ClassMeetingEntity {
+    
+    @NonNull
+    private String classId;
+    
+    // Calendar day constant (1=Sunday, 7=Saturday)
+    private int weekday;
+    
+    private String userId;
+    
+    // Time stored as minutes from midnight
+    private int startTime;
+    private int endTime;
+    
+    // Constructors
+    public ClassMeetingEntity() {
+        this.classId = "";
+    }
+    
+    public ClassMeetingEntity(@NonNull String classId, int weekday, String userId, int startTime, int endTime) {
+        this.classId = classId;
+        this.weekday = weekday;
+        this.userId = userId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+    
+    // Getters and Setters
+    @NonNull
+    public String getClassId() { return classId; }
+    public void setClassId(@NonNull String classId) { this.classId = classId; }
+    
+    public int getWeekday() { return weekday; }
+    public void setWeekday(int weekday) { this.weekday = weekday; }
+    
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    
+    public int getStartTime() { return startTime; }
+    public void setStartTime(int startTime) { this.startTime = startTime; }
+    
+    public int getEndTime() { return endTime; }
+    public void setEndTime(int endTime) { this.endTime = endTime; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ClassMeetingEntity)) return false;
+        ClassMeetingEntity other = (ClassMeetingEntity) o;
+        return classId.equals(other.classId) && weekday == other.weekday
+            && Objects.equals(userId, other.userId)
+            && startTime == other.startTime && endTime == other.endTime;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(classId, weekday);
+    }
+    
+    // Helper methods
+    
+    /**
+     * Build the meeting rows for a class, one per scheduled day
+     */
+    public static List<ClassMeetingEntity> forClass(ClassEntity classEntity) {
+        List<ClassMeetingEntity> meetings = new ArrayList<>();
+        for (int day : parseDays(classEntity.getDays())) {
+            meetings.add(new ClassMeetingEntity(classEntity.getId(), day, classEntity.getUserId(),
+                classEntity.getStartTime(), classEntity.getEndTime()));
+        }
+        return meetings;
+    }
+    
+    /**
+     * Parse a comma-separated days string into distinct weekday numbers.
+     * Tokens are matched whole, so "11" is never read as "1"; invalid ones are skipped.
+     */
+    public static Set<Integer> parseDays(String days) {
+        Set<Integer> result = new LinkedHashSet<>();
+        if (days == null || days.isEmpty()) return result;
+        for (String token : days.split(",")) {
+            try {
+                int day = Integer.parseInt(token.trim());
+                if (day >= 1 && day <= 7) result.add(day);
+            } catch (NumberFormatException ignored) {
+                // Skip malformed entries
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package com.studenthub.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * Per-day focus totals, updated as each focus session is recorded.
+ * The streak is fixed when the day's row is created, from the previous
+ * day's row, so reading it never scans history.
+ */
+@Entity(
+    tableName = "focus_daily_stats",
+    primaryKeys = {"userId", "epochDay"}
+)
+public class FocusDailyStatsEntity {
+    
+    @NonNull
+    private String userId;
+    
+    // Local calendar day, as days since 1970-01-01
+    private long epochDay;
+    
+    private long focusMs;
+    
+    // Focus sessions that ran to the end
+    private int sessionCount;
+    
+    // Consecutive days with focus time, ending with this one
+    private int streak;
+    
+    // Constructors
+    public FocusDailyStatsEntity() {
+        this.userId = "";
+    }
+    
+    // Getters and Setters
+    @NonNull
+    public String getUserId() { return userId; }
+    public void setUserId(@NonNull String userId) { this.userId = userId; }
+    
+    public long getEpochDay() { return epochDay; }
+    public void setEpochDay(long epochDay) { this.epochDay = epochDay; }
+    
+    public long getFocusMs() { return focusMs; }
+    public void setFocusMs(long focusMs) { this.focusMs = focusMs; }
+    
+    public int getSessionCount() { return sessionCount; }
+    public void setSessionCount(int sessionCount) { this.sessionCount = sessionCount; }
+    
+    public int getStreak() { return streak; }
+    public void setStreak(int streak) { this.streak = streak; }
+}
@@ -0,0 +1,86 @@
+package com.studenthub.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Room entity recording one focus or break session, finished or cut short.
+ * Local history only; aggregates live in {@link FocusDailyStatsEntity} and
+ * {@link FocusWeeklyStatsEntity}.
+ */
+@Entity(
+    tableName = "focus_sessions",
+    indices = {
+        // Long-break cycle: latest long break and focus sessions since
+        @Index(value = {"userId", "type", "endedAt"})
+    }
+)
+public class FocusSessionEntity {
+    
+    // Session types
+    public static final int TYPE_FOCUS = 0;
+    public static final int TYPE_SHORT_BREAK = 1;
+    public static final int TYPE_LONG_BREAK = 2;
+    
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+    
+    private String userId;
+    private int type;
+    private long startedAt;
+    private long endedAt;
+    
+    // Time actually spent running, excluding pauses
+    private long durationMs;
+    
+    // False when stopped or skipped before the timer ran out
+    private boolean completed;
+    
+    // Optional task worked on during the session
+    private String taskId;
+    
+    // Constructors
+    public FocusSessionEntity() {
+    }
+    
+    public FocusSessionEntity(String userId, int type, long startedAt, long endedAt,
+                              long durationMs, boolean completed, String taskId) {
+        this.userId = userId;
+        this.type = type;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+        this.durationMs = durationMs;
+        this.completed = completed;
+        this.taskId = taskId;
+    }
+    
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    
+    public int getType() { return type; }
+    public void setType(int type) { this.type = type; }
+    
+    public long getStartedAt() { return startedAt; }
+    public void setStartedAt(long startedAt) { this.startedAt = startedAt; }
+    
+    public long getEndedAt() { return endedAt; }
+    public void setEndedAt(long endedAt) { this.endedAt = endedAt; }
+    
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+    
+    public boolean isCompleted() { return completed; }
+    public void setCompleted(boolean completed) { this.completed = completed; }
+    
+    public String getTaskId() { return taskId; }
+    public void setTaskId(String taskId) { this.taskId = taskId; }
+    
+    public boolean isFocus() {
+        return type == TYPE_FOCUS;
+    }
+}
@@ -0,0 +1,45 @@
+package com.studenthub.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * Per-week focus totals, updated as each focus session is recorded.
+ * Weeks start on Sunday, matching the rest of the app.
+ */
+@Entity(
+    tableName = "focus_weekly_stats",
+    primaryKeys = {"userId", "weekStart"}
+)
+public class FocusWeeklyStatsEntity {
+    
+    @NonNull
+    private String userId;
+    
+    // Epoch day of the week's Sunday
+    private long weekStart;
+    
+    private long focusMs;
+    
+    // Focus sessions that ran to the end
+    private int sessionCount;
+    
+    // Constructors
+    public FocusWeeklyStatsEntity() {
+        this.userId = "";
+    }
+    
+    // Getters and Setters
+    @NonNull
+    public String getUserId() { return userId; }
+    public void setUserId(@NonNull String userId) { this.userId = userId; }
+    
+    public long getWeekStart() { return weekStart; }
+    public void setWeekStart(long weekStart) { this.weekStart = weekStart; }
+    
+    public long getFocusMs() { return focusMs; }
+    public void setFocusMs(long focusMs) { this.focusMs = focusMs; }
+    
+    public int getSessionCount() { return sessionCount; }
+    public void setSessionCount(int sessionCount) { this.sessionCount = sessionCount; }
+}
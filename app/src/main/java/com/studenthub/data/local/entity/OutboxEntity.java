@@ -0,0 +1,144 @@
+package com.studenthub.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Room entity representing one pending remote mutation.
+ * At most one row exists per document; later edits collapse into it.
+ * Field values are not stored here, they are read from the entity table
+ * when the mutation is sent so the newest local state always goes out.
+ */
+@Entity(
+    tableName = "outbox",
+    indices = {
+        @Index(value = {"collection", "docId"}, unique = true),
+        @Index("userId")
+    }
+)
+public class OutboxEntity {
+    
+    public static final String OP_UPSERT = "UPSERT";
+    public static final String OP_PATCH = "PATCH";
+    public static final String OP_DELETE = "DELETE";
+    
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+    
+    private String userId;
+    @NonNull
+    private String collection;
+    @NonNull
+    private String docId;
+    @NonNull
+    private String op;
+    private String fields; // Comma-separated field names, PATCH only
+    
+    // Bumped on every collapse so an in-flight send can tell it went stale
+    private int revision;
+    
+    // Retry state
+    private int attempts;
+    private long nextAttemptAt;
+    
+    // Constructors
+    public OutboxEntity() {
+        this.collection = "";
+        this.docId = "";
+        this.op = OP_UPSERT;
+    }
+    
+    public OutboxEntity(String userId, @NonNull String collection, @NonNull String docId,
+                        @NonNull String op, Collection<String> fields) {
+        this.userId = userId;
+        this.collection = collection;
+        this.docId = docId;
+        this.op = op;
+        this.fields = OP_PATCH.equals(op) ? joinFields(fields) : null;
+    }
+    
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    
+    @NonNull
+    public String getCollection() { return collection; }
+    public void setCollection(@NonNull String collection) { this.collection = collection; }
+    
+    @NonNull
+    public String getDocId() { return docId; }
+    public void setDocId(@NonNull String docId) { this.docId = docId; }
+    
+    @NonNull
+    public String getOp() { return op; }
+    public void setOp(@NonNull String op) { this.op = op; }
+    
+    public String getFields() { return fields; }
+    public void setFields(String fields) { this.fields = fields; }
+    
+    public int getRevision() { return revision; }
+    public void setRevision(int revision) { this.revision = revision; }
+    
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    
+    public long getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(long nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    
+    // Helper methods
+    
+    public boolean isDelete() {
+        return OP_DELETE.equals(op);
+    }
+    
+    public boolean isPatch() {
+        return OP_PATCH.equals(op);
+    }
+    
+    /**
+     * Get patched field names, empty for whole-document ops
+     */
+    public Set<String> getFieldSet() {
+        Set<String> set = new LinkedHashSet<>();
+        if (fields == null || fields.isEmpty()) return set;
+        for (String field : fields.split(",")) {
+            set.add(field);
+        }
+        return set;
+    }
+    
+    /**
+     * Fold a newer mutation for the same document into this one.
+     * A delete wins over everything, an upsert over a patch, and two
+     * patches merge their field sets. Retry state starts over.
+     */
+    public void collapse(@NonNull String newOp, Collection<String> newFields) {
+        if (OP_DELETE.equals(newOp) || OP_UPSERT.equals(newOp)) {
+            op = newOp;
+            fields = null;
+        } else if (OP_PATCH.equals(op)) {
+            Set<String> merged = getFieldSet();
+            merged.addAll(newFields);
+            fields = joinFields(merged);
+        }
+        // Patch after upsert: the upsert already carries every field.
+        // Patch after delete: the document is going away, nothing to patch.
+        
+        revision++;
+        attempts = 0;
+        nextAttemptAt = 0;
+    }
+    
+    private static String joinFields(Collection<String> fields) {
+        return fields == null ? null : String.join(",", fields);
+    }
+}
@@ -0,0 +1,93 @@
+package com.studenthub.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Room entity representing a user's tag, normalized out of
+ * {@link TaskEntity#getTags()} so tag filters are index lookups.
+ * The task count is kept up to date by TaskDao on every task write.
+ */
+@Entity(
+    tableName = "tags",
+    indices = {
+        // Tag lookup by name; names compare case-insensitively
+        @Index(value = {"userId", "name"}, unique = true)
+    }
+)
+public class TagEntity {
+    
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+    
+    @NonNull
+    private String userId;
+    
+    @NonNull
+    @ColumnInfo(collate = ColumnInfo.NOCASE)
+    private String name;
+    
+    // Live (non-deleted) tasks carrying this tag
+    private int taskCount;
+    
+    // Constructors
+    public TagEntity() {
+        this.userId = "";
+        this.name = "";
+    }
+    
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    
+    @NonNull
+    public String getUserId() { return userId; }
+    public void setUserId(@NonNull String userId) { this.userId = userId; }
+    
+    @NonNull
+    public String getName() { return name; }
+    public void setName(@NonNull String name) { this.name = name; }
+    
+    public int getTaskCount() { return taskCount; }
+    public void setTaskCount(int taskCount) { this.taskCount = taskCount; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TagEntity)) return false;
+        TagEntity other = (TagEntity) o;
+        return id == other.id && taskCount == other.taskCount
+            && userId.equals(other.userId) && name.equals(other.name);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+    
+    // Helper methods
+    
+    /**
+     * Parse a comma-separated tags string into distinct tag names, keeping the
+     * first spelling of each. A leading '#' and surrounding blanks are dropped.
+     */
+    public static Collection<String> parseTags(String tags) {
+        if (tags == null || tags.isEmpty()) return new ArrayList<>();
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String token : tags.split(",")) {
+            String name = token.trim();
+            if (name.startsWith("#")) name = name.substring(1).trim();
+            if (!name.isEmpty()) result.putIfAbsent(name.toLowerCase(Locale.ROOT), name);
+        }
+        return new ArrayList<>(result.values());
+    }
+}
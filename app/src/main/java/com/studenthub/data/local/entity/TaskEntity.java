@@ -2,13 +2,30 @@ package com.studenthub.data.local.entity;
 
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
 /**
  * Room entity representing a simple task.
  * Stores task details including title, optional due date, and tags.
  */
-@Entity(tableName = "tasks")
+@Entity(
+    tableName = "tasks",
+    indices = {
+        // getAllForUser (completed ASC, createdAt DESC) / getIncompleteForUser / getRecentIncompleteTasks
+        @Index(value = {"userId", "deleted", "completed", "createdAt"}, orders = {Index.Order.ASC, Index.Order.ASC, Index.Order.ASC, Index.Order.DESC}),
+        // getTasksForToday: ordered by dueDate within the incomplete set
+        @Index(value = {"userId", "deleted", "completed", "dueDate"}),
+        // getUnsyncedTasks
+        @Index(value = {"userId", "synced"}),
+        // Tombstone compaction
+        @Index(value = {"deleted", "synced", "updatedAt"})
+    }
+)
 public class TaskEntity {
     
     @PrimaryKey
@@ -111,20 +128,44 @@ public class TaskEntity {
      * Get tags as formatted string (with # prefix)
      */
     public String getFormattedTags() {
-        if (tags == null || tags.isEmpty()) return "";
-        
         StringBuilder sb = new StringBuilder();
-        String[] tagArray = tags.split(",");
-        for (String tag : tagArray) {
-            String trimmed = tag.trim();
-            if (!trimmed.isEmpty()) {
-                if (sb.length() > 0) sb.append(" ");
-                sb.append("#").append(trimmed);
-            }
+        for (String tag : TagEntity.parseTags(tags)) {
+            if (sb.length() > 0) sb.append(" ");
+            sb.append("#").append(tag);
         }
         return sb.toString();
     }
     
+    /**
+     * Get the document fields that differ from a stored copy of this task.
+     * Sync bookkeeping fields are not compared.
+     */
+    public Set<String> changedFieldsSince(TaskEntity other) {
+        Set<String> changed = new LinkedHashSet<>();
+        if (!Objects.equals(title, other.getTitle())) changed.add("title");
+        if (!Objects.equals(dueDate, other.getDueDate())) changed.add("dueDate");
+        if (!Objects.equals(tags, other.getTags())) changed.add("tags");
+        if (completed != other.isCompleted()) changed.add("completed");
+        return changed;
+    }
+    
+    /**
+     * Same task, same content and tombstone state. Sync bookkeeping is
+     * ignored so that sync writes don't read as changes to observers.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskEntity)) return false;
+        TaskEntity other = (TaskEntity) o;
+        return id.equals(other.id) && deleted == other.deleted && changedFieldsSince(other).isEmpty();
+    }
+    
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+    
     /**
      * Mark entity as updated (for sync tracking)
      */
@@ -0,0 +1,24 @@
+package com.studenthub.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over task titles and tags.
+ * External content table backed by {@link TaskEntity}.
+ */
+@Fts4(contentEntity = TaskEntity.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "tasks_fts")
+public class TaskFtsEntity {
+    
+    private String title;
+    private String tags;
+    
+    // Getters and Setters
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    
+    public String getTags() { return tags; }
+    public void setTags(String tags) { this.tags = tags; }
+}
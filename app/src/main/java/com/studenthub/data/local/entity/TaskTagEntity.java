@@ -0,0 +1,52 @@
+package com.studenthub.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+/**
+ * Room entity linking a task to one of its tags.
+ */
+@Entity(
+    tableName = "task_tags",
+    primaryKeys = {"taskId", "tagId"},
+    foreignKeys = {
+        @ForeignKey(
+            entity = TaskEntity.class,
+            parentColumns = "id",
+            childColumns = "taskId",
+            onDelete = ForeignKey.CASCADE
+        ),
+        @ForeignKey(
+            entity = TagEntity.class,
+            parentColumns = "id",
+            childColumns = "tagId",
+            onDelete = ForeignKey.CASCADE
+        )
+    },
+    indices = {
+        // Tasks with a tag
+        @Index(value = {"tagId"})
+    }
+)
+public class TaskTagEntity {
+    
+    @NonNull
+    private String taskId;
+    
+    private long tagId;
+    
+    // Constructors
+    public TaskTagEntity() {
+        this.taskId = "";
+    }
+    
+    // Getters and Setters
+    @NonNull
+    public String getTaskId() { return taskId; }
+    public void setTaskId(@NonNull String taskId) { this.taskId = taskId; }
+    
+    public long getTagId() { return tagId; }
+    public void setTagId(long tagId) { this.tagId = tagId; }
+}
@@ -0,0 +1,36 @@
+package com.studenthub.data.local.model;
+
+import java.util.Objects;
+
+/**
+ * The columns an assignment list row shows. Notes and sync fields are not
+ * loaded; editors read the full entity by id.
+ */
+public class AssignmentRow {
+
+    public String id;
+    public String title;
+    public String course;
+    public long dueDate;
+    public int priority;
+    public boolean completed;
+
+    public boolean isOverdue() {
+        return !completed && dueDate < System.currentTimeMillis();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AssignmentRow)) return false;
+        AssignmentRow other = (AssignmentRow) o;
+        return dueDate == other.dueDate && priority == other.priority && completed == other.completed
+            && Objects.equals(id, other.id) && Objects.equals(title, other.title)
+            && Objects.equals(course, other.course);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
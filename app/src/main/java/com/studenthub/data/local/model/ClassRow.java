@@ -0,0 +1,60 @@
+package com.studenthub.data.local.model;
+
+import com.studenthub.data.local.entity.ClassEntity;
+import com.studenthub.data.local.entity.ClassMeetingEntity;
+import com.studenthub.util.DateTimeUtils;
+
+import java.util.Objects;
+
+/**
+ * The columns a class row or the next-class card shows; notes and sync
+ * fields are not loaded.
+ */
+public class ClassRow {
+
+    public String id;
+    public String name;
+    public String days;
+
+    // Minutes from midnight
+    public int startTime;
+    public int endTime;
+
+    public String building;
+    public String room;
+
+    public String getLocation() {
+        return ClassEntity.formatLocation(building, room);
+    }
+
+    public String getFormattedStartTime() {
+        return DateTimeUtils.formatTime(startTime / 60, startTime % 60);
+    }
+
+    public String getFormattedEndTime() {
+        return DateTimeUtils.formatTime(endTime / 60, endTime % 60);
+    }
+
+    /**
+     * @param dayOfWeek Calendar day constant (1=Sunday, 7=Saturday)
+     */
+    public boolean occursOnDay(int dayOfWeek) {
+        return ClassMeetingEntity.parseDays(days).contains(dayOfWeek);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ClassRow)) return false;
+        ClassRow other = (ClassRow) o;
+        return startTime == other.startTime && endTime == other.endTime
+            && Objects.equals(id, other.id) && Objects.equals(name, other.name)
+            && Objects.equals(days, other.days) && Objects.equals(building, other.building)
+            && Objects.equals(room, other.room);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -0,0 +1,35 @@
+package com.studenthub.data.local.model;
+
+import androidx.room.Embedded;
+import androidx.room.Relation;
+
+import com.studenthub.data.local.entity.ClassEntity;
+import com.studenthub.data.local.entity.ClassMeetingEntity;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A class together with its weekly meetings, loaded by Room in one transaction.
+ */
+public class ClassWithMeetings {
+
+    @Embedded
+    public ClassEntity classEntity;
+
+    @Relation(parentColumn = "id", entityColumn = "classId")
+    public List<ClassMeetingEntity> meetings;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ClassWithMeetings)) return false;
+        ClassWithMeetings other = (ClassWithMeetings) o;
+        return Objects.equals(classEntity, other.classEntity) && Objects.equals(meetings, other.meetings);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(classEntity);
+    }
+}
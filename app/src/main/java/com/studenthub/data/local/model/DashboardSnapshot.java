@@ -0,0 +1,43 @@
+package com.studenthub.data.local.model;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Everything the home dashboard shows, read together in one transaction
+ * so the cards always render from the same consistent state.
+ */
+public class DashboardSnapshot {
+
+    @Nullable
+    public final ClassRow nextClass;
+    public final List<AssignmentRow> upcomingAssignments;
+    public final int incompleteTaskCount;
+    public final List<TaskRow> recentTasks;
+
+    public DashboardSnapshot(@Nullable ClassRow nextClass, List<AssignmentRow> upcomingAssignments,
+                             int incompleteTaskCount, List<TaskRow> recentTasks) {
+        this.nextClass = nextClass;
+        this.upcomingAssignments = upcomingAssignments;
+        this.incompleteTaskCount = incompleteTaskCount;
+        this.recentTasks = recentTasks;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DashboardSnapshot)) return false;
+        DashboardSnapshot other = (DashboardSnapshot) o;
+        return incompleteTaskCount == other.incompleteTaskCount
+            && Objects.equals(nextClass, other.nextClass)
+            && Objects.equals(upcomingAssignments, other.upcomingAssignments)
+            && Objects.equals(recentTasks, other.recentTasks);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nextClass, incompleteTaskCount);
+    }
+}
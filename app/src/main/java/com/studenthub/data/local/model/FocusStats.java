@@ -0,0 +1,28 @@
+package com.studenthub.data.local.model;
+
+/**
+ * Focus totals for the focus screen, read from the rollup tables.
+ */
+public class FocusStats {
+
+    public long todayFocusMs;
+    public int todaySessions;
+    public long weekFocusMs;
+
+    // Current streak; still alive until a full day passes without focus
+    public int streak;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FocusStats)) return false;
+        FocusStats other = (FocusStats) o;
+        return todayFocusMs == other.todayFocusMs && todaySessions == other.todaySessions
+            && weekFocusMs == other.weekFocusMs && streak == other.streak;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(todayFocusMs) * 31 + streak;
+    }
+}
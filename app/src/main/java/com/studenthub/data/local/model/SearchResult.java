@@ -0,0 +1,25 @@
+package com.studenthub.data.local.model;
+
+import androidx.room.Ignore;
+
+/**
+ * One full-text search hit. Rows come from {@code SearchDao}; the score is
+ * filled in by the repository from {@link #matchInfo} before merging.
+ */
+public class SearchResult {
+
+    public static final int TYPE_ASSIGNMENT = 0;
+    public static final int TYPE_TASK = 1;
+    public static final int TYPE_CLASS = 2;
+
+    public int type;
+    public String id;
+    public String title;
+    public String subtitle;
+
+    // matchinfo(..., 'pcx') blob for ranking
+    public byte[] matchInfo;
+
+    @Ignore
+    public double score;
+}
@@ -0,0 +1,55 @@
+package com.studenthub.data.local.model;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Lightweight projection of a row's id and updatedAt.
+ * Used to resolve last-write-wins conflicts without hydrating full entities.
+ */
+public class SyncStamp {
+
+    // Stay under SQLite's default limit of 999 bound variables per statement
+    private static final int MAX_IDS_PER_QUERY = 900;
+
+    @NonNull
+    public String id = "";
+    public long updatedAt;
+
+    /**
+     * Select the remote rows that are missing locally or strictly newer than the local copy.
+     *
+     * @param loader loads local stamps for a chunk of ids (one IN-query per chunk)
+     */
+    public static <T> List<T> selectNewer(List<T> remote,
+                                          Function<T, String> idOf,
+                                          ToLongFunction<T> updatedAtOf,
+                                          Function<List<String>, List<SyncStamp>> loader) {
+        Map<String, Long> localUpdatedAt = new HashMap<>(remote.size() * 2);
+        List<String> ids = new ArrayList<>(remote.size());
+        for (T row : remote) {
+            ids.add(idOf.apply(row));
+        }
+        for (int i = 0; i < ids.size(); i += MAX_IDS_PER_QUERY) {
+            List<String> chunk = ids.subList(i, Math.min(i + MAX_IDS_PER_QUERY, ids.size()));
+            for (SyncStamp stamp : loader.apply(chunk)) {
+                localUpdatedAt.put(stamp.id, stamp.updatedAt);
+            }
+        }
+
+        List<T> winners = new ArrayList<>();
+        for (T row : remote) {
+            Long local = localUpdatedAt.get(idOf.apply(row));
+            if (local == null || updatedAtOf.applyAsLong(row) > local) {
+                winners.add(row);
+            }
+        }
+        return winners;
+    }
+}
@@ -0,0 +1,27 @@
+package com.studenthub.data.local.model;
+
+import java.util.Objects;
+
+/**
+ * The columns a task preview row shows.
+ */
+public class TaskRow {
+
+    public String id;
+    public String title;
+    public boolean completed;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskRow)) return false;
+        TaskRow other = (TaskRow) o;
+        return completed == other.completed
+            && Objects.equals(id, other.id) && Objects.equals(title, other.title);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -0,0 +1,33 @@
+package com.studenthub.data.local.model;
+
+import com.studenthub.data.local.entity.TagEntity;
+import com.studenthub.data.local.entity.TaskEntity;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+
+/**
+ * A task's sync stamp plus the columns its tag links are derived from.
+ * Lets a merge skip relinking tags for rows whose tags did not change.
+ */
+public class TaskSyncStamp extends SyncStamp {
+
+    public String userId;
+    public String tags;
+    public boolean deleted;
+
+    /**
+     * Whether writing the given task over this row leaves its tag links as they are
+     */
+    public boolean hasSameTagsAs(TaskEntity task) {
+        return Objects.equals(userId, task.getUserId())
+            && linkedTags(tags, deleted, userId).equals(linkedTags(task.getTags(), task.isDeleted(), task.getUserId()));
+    }
+
+    // Tombstones and rows without a user carry no tag links
+    private static Collection<String> linkedTags(String tags, boolean deleted, String userId) {
+        if (deleted || userId == null) return Collections.emptyList();
+        return TagEntity.parseTags(tags);
+    }
+}
@@ -2,20 +2,37 @@ package com.studenthub.data.remote;
 
 import android.util.Log;
 
+import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
 import com.studenthub.data.local.entity.AssignmentEntity;
 import com.studenthub.data.local.entity.ClassEntity;
 import com.studenthub.data.local.entity.TaskEntity;
+import com.studenthub.diagnostics.Metrics;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Manages all Firestore operations for cloud synchronization.
@@ -31,14 +48,32 @@ public class FirestoreManager {
     private static final String TAG = "FirestoreManager";
     
     private static final String COLLECTION_USERS = "users";
-    private static final String COLLECTION_CLASSES = "classes";
-    private static final String COLLECTION_ASSIGNMENTS = "assignments";
-    private static final String COLLECTION_TASKS = "tasks";
+    public static final String COLLECTION_CLASSES = "classes";
+    public static final String COLLECTION_ASSIGNMENTS = "assignments";
+    public static final String COLLECTION_TASKS = "tasks";
     private static final String DOC_SETTINGS = "settings";
     
+    // Firestore rejects write batches with more than 500 operations
+    public static final int MAX_BATCH_WRITES = 500;
+    
+    // Server-assigned write time, used as the incremental pull watermark.
+    // Client updatedAt stays the conflict-resolution clock but can lag behind
+    // for edits made offline, so it cannot drive "what changed since" queries.
+    private static final String FIELD_SERVER_UPDATED_AT = "serverUpdatedAt";
+    
+    // Document field names that callers patch individually
+    public static final String FIELD_COMPLETED = "completed";
+    
     private final FirebaseFirestore db;
     private static FirestoreManager instance;
     
+    // Snapshot listeners attached while live mode is on
+    private final List<ListenerRegistration> liveRegistrations = new ArrayList<>();
+    
+    private final Metrics metrics = Metrics.getInstance();
+    // Read sizing converts every document; kept off the main thread callbacks run on
+    private final ExecutorService metricsExecutor = Executors.newSingleThreadExecutor();
+    
     private FirestoreManager() {
         db = FirebaseFirestore.getInstance();
     }
@@ -82,34 +117,38 @@ public class FirestoreManager {
     }
     
     /**
-     * Fetch all classes for the current user from Firestore.
+     * Fetch classes written to Firestore after the given server-time watermark.
+     * A watermark of 0 fetches the whole collection.
      */
-    public void fetchClasses(OnFetchClassesListener listener) {
+    public void fetchClasses(long updatedAfter, OnFetchClassesListener listener) {
         String userId = getCurrentUserId();
         if (userId == null) {
             listener.onFailure(new Exception("User not logged in"));
             return;
         }
         
-        db.collection(COLLECTION_USERS)
-            .document(userId)
-            .collection(COLLECTION_CLASSES)
+        long startedAt = Metrics.start();
+        changedSince(userId, COLLECTION_CLASSES, updatedAfter)
             .get()
             .addOnSuccessListener(querySnapshot -> {
+                metrics.timeSince(Metrics.FETCH_PREFIX + COLLECTION_CLASSES, startedAt);
+                recordReads(querySnapshot, false);
                 List<ClassEntity> classes = new ArrayList<>();
+                long highWaterMark = updatedAfter;
                 for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
+                    highWaterMark = Math.max(highWaterMark, serverUpdatedAt(doc));
                     ClassEntity entity = mapToClass(doc);
                     if (entity != null) {
                         classes.add(entity);
                     }
                 }
-                listener.onSuccess(classes);
+                listener.onSuccess(classes, highWaterMark);
             })
             .addOnFailureListener(listener::onFailure);
     }
     
     /**
-     * Delete a class from Firestore.
+     * Delete a class from Firestore by writing a tombstone, see {@link #tombstone}.
      */
     public void deleteClass(String classId, OnCompleteListener listener) {
         String userId = getCurrentUserId();
@@ -122,7 +161,7 @@ public class FirestoreManager {
             .document(userId)
             .collection(COLLECTION_CLASSES)
             .document(classId)
-            .delete()
+            .set(tombstone(userId, classId, System.currentTimeMillis()), SetOptions.merge())
             .addOnSuccessListener(aVoid -> listener.onSuccess())
             .addOnFailureListener(listener::onFailure);
     }
@@ -151,34 +190,38 @@ public class FirestoreManager {
     }
     
     /**
-     * Fetch all assignments for the current user from Firestore.
+     * Fetch assignments written to Firestore after the given server-time watermark.
+     * A watermark of 0 fetches the whole collection.
      */
-    public void fetchAssignments(OnFetchAssignmentsListener listener) {
+    public void fetchAssignments(long updatedAfter, OnFetchAssignmentsListener listener) {
         String userId = getCurrentUserId();
         if (userId == null) {
             listener.onFailure(new Exception("User not logged in"));
             return;
         }
         
-        db.collection(COLLECTION_USERS)
-            .document(userId)
-            .collection(COLLECTION_ASSIGNMENTS)
+        long startedAt = Metrics.start();
+        changedSince(userId, COLLECTION_ASSIGNMENTS, updatedAfter)
             .get()
             .addOnSuccessListener(querySnapshot -> {
+                metrics.timeSince(Metrics.FETCH_PREFIX + COLLECTION_ASSIGNMENTS, startedAt);
+                recordReads(querySnapshot, false);
                 List<AssignmentEntity> assignments = new ArrayList<>();
+                long highWaterMark = updatedAfter;
                 for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
+                    highWaterMark = Math.max(highWaterMark, serverUpdatedAt(doc));
                     AssignmentEntity entity = mapToAssignment(doc);
                     if (entity != null) {
                         assignments.add(entity);
                     }
                 }
-                listener.onSuccess(assignments);
+                listener.onSuccess(assignments, highWaterMark);
             })
             .addOnFailureListener(listener::onFailure);
     }
     
     /**
-     * Delete an assignment from Firestore.
+     * Delete an assignment from Firestore by writing a tombstone, see {@link #tombstone}.
      */
     public void deleteAssignment(String assignmentId, OnCompleteListener listener) {
         String userId = getCurrentUserId();
@@ -191,7 +234,7 @@ public class FirestoreManager {
             .document(userId)
             .collection(COLLECTION_ASSIGNMENTS)
             .document(assignmentId)
-            .delete()
+            .set(tombstone(userId, assignmentId, System.currentTimeMillis()), SetOptions.merge())
             .addOnSuccessListener(aVoid -> listener.onSuccess())
             .addOnFailureListener(listener::onFailure);
     }
@@ -220,34 +263,38 @@ public class FirestoreManager {
     }
     
     /**
-     * Fetch all tasks for the current user from Firestore.
+     * Fetch tasks written to Firestore after the given server-time watermark.
+     * A watermark of 0 fetches the whole collection.
      */
-    public void fetchTasks(OnFetchTasksListener listener) {
+    public void fetchTasks(long updatedAfter, OnFetchTasksListener listener) {
         String userId = getCurrentUserId();
         if (userId == null) {
             listener.onFailure(new Exception("User not logged in"));
             return;
         }
         
-        db.collection(COLLECTION_USERS)
-            .document(userId)
-            .collection(COLLECTION_TASKS)
+        long startedAt = Metrics.start();
+        changedSince(userId, COLLECTION_TASKS, updatedAfter)
             .get()
             .addOnSuccessListener(querySnapshot -> {
+                metrics.timeSince(Metrics.FETCH_PREFIX + COLLECTION_TASKS, startedAt);
+                recordReads(querySnapshot, false);
                 List<TaskEntity> tasks = new ArrayList<>();
+                long highWaterMark = updatedAfter;
                 for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
+                    highWaterMark = Math.max(highWaterMark, serverUpdatedAt(doc));
                     TaskEntity entity = mapToTask(doc);
                     if (entity != null) {
                         tasks.add(entity);
                     }
                 }
-                listener.onSuccess(tasks);
+                listener.onSuccess(tasks, highWaterMark);
             })
             .addOnFailureListener(listener::onFailure);
     }
     
     /**
-     * Delete a task from Firestore.
+     * Delete a task from Firestore by writing a tombstone, see {@link #tombstone}.
      */
     public void deleteTask(String taskId, OnCompleteListener listener) {
         String userId = getCurrentUserId();
@@ -260,13 +307,333 @@ public class FirestoreManager {
             .document(userId)
             .collection(COLLECTION_TASKS)
             .document(taskId)
-            .delete()
+            .set(tombstone(userId, taskId, System.currentTimeMillis()), SetOptions.merge())
             .addOnSuccessListener(aVoid -> listener.onSuccess())
             .addOnFailureListener(listener::onFailure);
     }
     
+    // ========== BATCH OPERATIONS ==========
+    
+    /**
+     * Commit queued mutations as one atomic write batch.
+     * Upserts write the whole document, patches only their fields plus the
+     * sync clocks (see {@link #patchData}), and deletes a {@link #tombstone}.
+     * Patches are update() calls, so they never create a document: a patch to
+     * a document that is gone entirely, e.g. hard-deleted before tombstones,
+     * fails the whole batch with NOT_FOUND (see {@link #isNotFound}) instead
+     * of leaving a partial document behind that no pull could map.
+     */
+    public void commitMutations(List<Mutation> mutations, OnCompleteListener listener) {
+        String userId = getCurrentUserId();
+        if (userId == null) {
+            listener.onFailure(new Exception("User not logged in"));
+            return;
+        }
+        
+        if (mutations.size() > MAX_BATCH_WRITES) {
+            listener.onFailure(new IllegalArgumentException(
+                "Batch of " + mutations.size() + " exceeds " + MAX_BATCH_WRITES + " writes"));
+            return;
+        }
+        
+        WriteBatch batch = db.batch();
+        long bytes = 0;
+        
+        for (Mutation m : mutations) {
+            DocumentReference ref = userCollection(userId, m.collection).document(m.docId);
+            Map<String, Object> data;
+            if (m.entity == null) {
+                data = tombstone(userId, m.docId, m.deletedAt);
+                batch.set(ref, data, SetOptions.merge());
+            } else if (m.fields == null) {
+                data = entityToMap(m.collection, m.entity);
+                batch.set(ref, data, SetOptions.merge());
+            } else {
+                // Only the dirty fields go over the wire
+                data = patchData(entityToMap(m.collection, m.entity), m.fields);
+                batch.update(ref, data);
+            }
+            bytes += documentSize(ref.getPath(), data);
+        }
+        
+        long batchBytes = bytes;
+        batch.commit()
+            .addOnSuccessListener(aVoid -> {
+                metrics.count(Metrics.DOCS_WRITTEN, mutations.size());
+                metrics.count(Metrics.BYTES_WRITTEN, batchBytes);
+                listener.onSuccess();
+            })
+            .addOnFailureListener(listener::onFailure);
+    }
+    
+    /**
+     * Deletes are soft: the document stays as a tombstone with a fresh server
+     * time, so the removal reaches other devices through both the watermark
+     * pull and the filtered live listeners. A hard delete would only surface
+     * as REMOVED to a listener whose result set still held the document.
+     * Merged, so an existing document keeps its fields; id and userId make
+     * one written for a never-pushed document mappable too.
+     */
+    private Map<String, Object> tombstone(String userId, String docId, long deletedAt) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", docId);
+        map.put("userId", userId);
+        map.put("updatedAt", deletedAt);
+        map.put("deleted", true);
+        map.put(FIELD_SERVER_UPDATED_AT, FieldValue.serverTimestamp());
+        return map;
+    }
+    
+    /**
+     * Whether a batch failed because a patched document does not exist.
+     */
+    public static boolean isNotFound(Exception e) {
+        return e instanceof FirebaseFirestoreException
+            && ((FirebaseFirestoreException) e).getCode() == FirebaseFirestoreException.Code.NOT_FOUND;
+    }
+    
+    private Map<String, Object> entityToMap(String collection, Object entity) {
+        switch (collection) {
+            case COLLECTION_CLASSES:
+                return classToMap((ClassEntity) entity);
+            case COLLECTION_ASSIGNMENTS:
+                return assignmentToMap((AssignmentEntity) entity);
+            case COLLECTION_TASKS:
+                return taskToMap((TaskEntity) entity);
+            default:
+                throw new IllegalArgumentException("Unknown collection " + collection);
+        }
+    }
+    
+    /**
+     * Narrow a full document to the patched fields plus the sync clocks and
+     * the deleted flag. Tombstones keep their document, so an edit made while
+     * another device deleted the row lands on the tombstone; carrying
+     * deleted=false revives it for everyone, as last-write-wins requires,
+     * instead of leaving a newer tombstone that only the editor ignores.
+     */
+    static Map<String, Object> patchData(Map<String, Object> document, Collection<String> fields) {
+        Set<String> keys = new LinkedHashSet<>(fields);
+        keys.add("updatedAt");
+        keys.add("deleted");
+        keys.add(FIELD_SERVER_UPDATED_AT);
+        document.keySet().retainAll(keys);
+        return document;
+    }
+    
+    private CollectionReference userCollection(String userId, String collection) {
+        return db.collection(COLLECTION_USERS)
+            .document(userId)
+            .collection(collection);
+    }
+    
+    private Query changedSince(String userId, String collection, long updatedAfter) {
+        CollectionReference ref = userCollection(userId, collection);
+        if (updatedAfter <= 0) {
+            return ref;
+        }
+        return ref.whereGreaterThan(FIELD_SERVER_UPDATED_AT, new Timestamp(new Date(updatedAfter)));
+    }
+    
+    /**
+     * Server write time in millis, or 0 for documents written before it was tracked.
+     * Truncating to millis can only make the next pull re-read a document, never skip one.
+     */
+    private long serverUpdatedAt(DocumentSnapshot doc) {
+        Timestamp ts = doc.getTimestamp(FIELD_SERVER_UPDATED_AT);
+        return ts != null ? ts.toDate().getTime() : 0;
+    }
+    
+    // ========== LIVE MODE ==========
+    
+    /**
+     * Attach snapshot listeners to all three collections, starting from the given
+     * watermarks so the initial snapshot only carries what a pull would have fetched.
+     * Only document changes are delivered; documents with pending local writes are
+     * skipped because Room already holds that version. Deletes arrive as modified
+     * tombstones; REMOVED only covers documents hard-deleted by older clients.
+     * No-op if already live.
+     */
+    public synchronized void startLiveSync(long classesSince, long assignmentsSince, long tasksSince,
+                                           OnLiveChangesListener listener) {
+        String userId = getCurrentUserId();
+        if (userId == null) {
+            listener.onFailure(new Exception("User not logged in"));
+            return;
+        }
+        if (!liveRegistrations.isEmpty()) return;
+        
+        liveRegistrations.add(changedSince(userId, COLLECTION_CLASSES, classesSince)
+            .addSnapshotListener((snapshot, e) -> {
+                if (e != null) {
+                    listener.onFailure(e);
+                    return;
+                }
+                recordReads(snapshot, true);
+                List<ClassEntity> upserted = new ArrayList<>();
+                List<String> removedIds = new ArrayList<>();
+                long highWaterMark = classesSince;
+                for (DocumentChange change : snapshot.getDocumentChanges()) {
+                    DocumentSnapshot doc = change.getDocument();
+                    if (doc.getMetadata().hasPendingWrites()) continue;
+                    if (change.getType() == DocumentChange.Type.REMOVED) {
+                        removedIds.add(doc.getId());
+                    } else {
+                        ClassEntity entity = mapToClass(doc);
+                        if (entity != null) upserted.add(entity);
+                        highWaterMark = Math.max(highWaterMark, serverUpdatedAt(doc));
+                    }
+                }
+                if (!upserted.isEmpty() || !removedIds.isEmpty()) {
+                    listener.onClassChanges(upserted, removedIds, highWaterMark);
+                }
+            }));
+        
+        liveRegistrations.add(changedSince(userId, COLLECTION_ASSIGNMENTS, assignmentsSince)
+            .addSnapshotListener((snapshot, e) -> {
+                if (e != null) {
+                    listener.onFailure(e);
+                    return;
+                }
+                recordReads(snapshot, true);
+                List<AssignmentEntity> upserted = new ArrayList<>();
+                List<String> removedIds = new ArrayList<>();
+                long highWaterMark = assignmentsSince;
+                for (DocumentChange change : snapshot.getDocumentChanges()) {
+                    DocumentSnapshot doc = change.getDocument();
+                    if (doc.getMetadata().hasPendingWrites()) continue;
+                    if (change.getType() == DocumentChange.Type.REMOVED) {
+                        removedIds.add(doc.getId());
+                    } else {
+                        AssignmentEntity entity = mapToAssignment(doc);
+                        if (entity != null) upserted.add(entity);
+                        highWaterMark = Math.max(highWaterMark, serverUpdatedAt(doc));
+                    }
+                }
+                if (!upserted.isEmpty() || !removedIds.isEmpty()) {
+                    listener.onAssignmentChanges(upserted, removedIds, highWaterMark);
+                }
+            }));
+        
+        liveRegistrations.add(changedSince(userId, COLLECTION_TASKS, tasksSince)
+            .addSnapshotListener((snapshot, e) -> {
+                if (e != null) {
+                    listener.onFailure(e);
+                    return;
+                }
+                recordReads(snapshot, true);
+                List<TaskEntity> upserted = new ArrayList<>();
+                List<String> removedIds = new ArrayList<>();
+                long highWaterMark = tasksSince;
+                for (DocumentChange change : snapshot.getDocumentChanges()) {
+                    DocumentSnapshot doc = change.getDocument();
+                    if (doc.getMetadata().hasPendingWrites()) continue;
+                    if (change.getType() == DocumentChange.Type.REMOVED) {
+                        removedIds.add(doc.getId());
+                    } else {
+                        TaskEntity entity = mapToTask(doc);
+                        if (entity != null) upserted.add(entity);
+                        highWaterMark = Math.max(highWaterMark, serverUpdatedAt(doc));
+                    }
+                }
+                if (!upserted.isEmpty() || !removedIds.isEmpty()) {
+                    listener.onTaskChanges(upserted, removedIds, highWaterMark);
+                }
+            }));
+    }
+    
+    /**
+     * Detach all snapshot listeners.
+     */
+    public synchronized void stopLiveSync() {
+        for (ListenerRegistration registration : liveRegistrations) {
+            registration.remove();
+        }
+        liveRegistrations.clear();
+    }
+    
+    public synchronized boolean isLiveSyncActive() {
+        return !liveRegistrations.isEmpty();
+    }
+    
+    // ========== METRICS ==========
+    
+    /**
+     * Count the documents a snapshot brought from the server, and their size.
+     * Snapshots served from the local cache cost nothing and are skipped.
+     * Snapshots are immutable, so the sizing runs on the metrics executor.
+     *
+     * @param changesOnly count only changed documents, as listeners are billed
+     */
+    private void recordReads(QuerySnapshot snapshot, boolean changesOnly) {
+        if (snapshot.getMetadata().isFromCache()) return;
+        
+        List<DocumentSnapshot> docs = new ArrayList<>();
+        if (changesOnly) {
+            for (DocumentChange change : snapshot.getDocumentChanges()) {
+                docs.add(change.getDocument());
+            }
+        } else {
+            docs.addAll(snapshot.getDocuments());
+        }
+        
+        metrics.count(Metrics.DOCS_READ, docs.size());
+        metricsExecutor.execute(() -> {
+            long bytes = 0;
+            for (DocumentSnapshot doc : docs) {
+                bytes += documentSize(doc.getReference().getPath(), doc.getData());
+            }
+            metrics.count(Metrics.BYTES_READ, bytes);
+        });
+    }
+    
+    /**
+     * Estimated document size following Firestore's storage size rules. The SDK
+     * does not expose wire bytes, but this tracks payload growth closely.
+     */
+    private static long documentSize(String path, Map<String, Object> data) {
+        long size = 16 + 32;
+        for (String segment : path.split("/")) {
+            size += utf8Size(segment);
+        }
+        return size + valueSize(data);
+    }
+    
+    private static long valueSize(Object value) {
+        if (value == null || value instanceof Boolean) return 1;
+        if (value instanceof String) return utf8Size((String) value);
+        if (value instanceof Map) {
+            long size = 0;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += utf8Size(String.valueOf(entry.getKey())) + valueSize(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection) {
+            long size = 0;
+            for (Object element : (Collection<?>) value) {
+                size += valueSize(element);
+            }
+            return size;
+        }
+        // Numbers, timestamps and server-time sentinels
+        return 8;
+    }
+    
+    private static long utf8Size(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length + 1;
+    }
+    
     // ========== MAPPING HELPERS ==========
     
+    /**
+     * A deleted document, mapped to a bare row: its other fields may be
+     * missing and are never shown.
+     */
+    private static boolean isTombstone(DocumentSnapshot doc) {
+        return Boolean.TRUE.equals(doc.getBoolean("deleted")) && doc.getLong("updatedAt") != null;
+    }
+    
     private Map<String, Object> classToMap(ClassEntity entity) {
         Map<String, Object> map = new HashMap<>();
         map.put("id", entity.getId());
@@ -281,10 +648,20 @@ public class FirestoreManager {
         map.put("createdAt", entity.getCreatedAt());
         map.put("updatedAt", entity.getUpdatedAt());
         map.put("deleted", entity.isDeleted());
+        map.put(FIELD_SERVER_UPDATED_AT, FieldValue.serverTimestamp());
         return map;
     }
     
     private ClassEntity mapToClass(DocumentSnapshot doc) {
+        if (isTombstone(doc)) {
+            ClassEntity entity = new ClassEntity();
+            entity.setId(doc.getId());
+            entity.setUserId(doc.getString("userId"));
+            entity.setUpdatedAt(doc.getLong("updatedAt"));
+            entity.setDeleted(true);
+            entity.setSynced(true);
+            return entity;
+        }
         try {
             ClassEntity entity = new ClassEntity();
             entity.setId(doc.getString("id"));
@@ -316,14 +693,24 @@ public class FirestoreManager {
         map.put("dueDate", entity.getDueDate());
         map.put("priority", entity.getPriority());
         map.put("notes", entity.getNotes());
-        map.put("completed", entity.isCompleted());
+        map.put(FIELD_COMPLETED, entity.isCompleted());
         map.put("createdAt", entity.getCreatedAt());
         map.put("updatedAt", entity.getUpdatedAt());
         map.put("deleted", entity.isDeleted());
+        map.put(FIELD_SERVER_UPDATED_AT, FieldValue.serverTimestamp());
         return map;
     }
     
     private AssignmentEntity mapToAssignment(DocumentSnapshot doc) {
+        if (isTombstone(doc)) {
+            AssignmentEntity entity = new AssignmentEntity();
+            entity.setId(doc.getId());
+            entity.setUserId(doc.getString("userId"));
+            entity.setUpdatedAt(doc.getLong("updatedAt"));
+            entity.setDeleted(true);
+            entity.setSynced(true);
+            return entity;
+        }
         try {
             AssignmentEntity entity = new AssignmentEntity();
             entity.setId(doc.getString("id"));
@@ -352,14 +739,24 @@ public class FirestoreManager {
         map.put("title", entity.getTitle());
         map.put("dueDate", entity.getDueDate());
         map.put("tags", entity.getTags());
-        map.put("completed", entity.isCompleted());
+        map.put(FIELD_COMPLETED, entity.isCompleted());
         map.put("createdAt", entity.getCreatedAt());
         map.put("updatedAt", entity.getUpdatedAt());
         map.put("deleted", entity.isDeleted());
+        map.put(FIELD_SERVER_UPDATED_AT, FieldValue.serverTimestamp());
         return map;
     }
     
     private TaskEntity mapToTask(DocumentSnapshot doc) {
+        if (isTombstone(doc)) {
+            TaskEntity entity = new TaskEntity();
+            entity.setId(doc.getId());
+            entity.setUserId(doc.getString("userId"));
+            entity.setUpdatedAt(doc.getLong("updatedAt"));
+            entity.setDeleted(true);
+            entity.setSynced(true);
+            return entity;
+        }
         try {
             TaskEntity entity = new TaskEntity();
             entity.setId(doc.getString("id"));
@@ -379,6 +776,40 @@ public class FirestoreManager {
         }
     }
     
+    // ========== MUTATIONS ==========
+    
+    /**
+     * One document write in a {@link #commitMutations} batch.
+     */
+    public static class Mutation {
+        final String collection;
+        final String docId;
+        final Object entity; // null for delete
+        final Collection<String> fields; // null for whole document
+        final long deletedAt; // tombstone clock, delete only
+        
+        private Mutation(String collection, String docId, Object entity, Collection<String> fields,
+                         long deletedAt) {
+            this.collection = collection;
+            this.docId = docId;
+            this.entity = entity;
+            this.fields = fields;
+            this.deletedAt = deletedAt;
+        }
+        
+        public static Mutation upsert(String collection, String docId, Object entity) {
+            return new Mutation(collection, docId, entity, null, 0);
+        }
+        
+        public static Mutation patch(String collection, String docId, Object entity, Collection<String> fields) {
+            return new Mutation(collection, docId, entity, fields, 0);
+        }
+        
+        public static Mutation delete(String collection, String docId, long deletedAt) {
+            return new Mutation(collection, docId, null, null, deletedAt);
+        }
+    }
+    
     // ========== LISTENERS ==========
     
     public interface OnCompleteListener {
@@ -387,17 +818,24 @@ public class FirestoreManager {
     }
     
     public interface OnFetchClassesListener {
-        void onSuccess(List<ClassEntity> classes);
+        void onSuccess(List<ClassEntity> classes, long highWaterMark);
         void onFailure(Exception e);
     }
     
     public interface OnFetchAssignmentsListener {
-        void onSuccess(List<AssignmentEntity> assignments);
+        void onSuccess(List<AssignmentEntity> assignments, long highWaterMark);
         void onFailure(Exception e);
     }
     
     public interface OnFetchTasksListener {
-        void onSuccess(List<TaskEntity> tasks);
+        void onSuccess(List<TaskEntity> tasks, long highWaterMark);
+        void onFailure(Exception e);
+    }
+    
+    public interface OnLiveChangesListener {
+        void onClassChanges(List<ClassEntity> upserted, List<String> removedIds, long highWaterMark);
+        void onAssignmentChanges(List<AssignmentEntity> upserted, List<String> removedIds, long highWaterMark);
+        void onTaskChanges(List<TaskEntity> upserted, List<String> removedIds, long highWaterMark);
         void onFailure(Exception e);
     }
 }
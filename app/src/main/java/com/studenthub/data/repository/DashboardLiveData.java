@@ -0,0 +1,126 @@
+package com.studenthub.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.room.InvalidationTracker;
+
+import com.studenthub.data.local.database.AppDatabase;
+import com.studenthub.data.local.model.AssignmentRow;
+import com.studenthub.data.local.model.ClassRow;
+import com.studenthub.data.local.model.DashboardSnapshot;
+import com.studenthub.data.local.model.TaskRow;
+import com.studenthub.diagnostics.Metrics;
+import com.studenthub.util.DateTimeUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Emits a {@link DashboardSnapshot} built from a single read transaction.
+ *
+ * Recomputed while observed whenever one of the source tables changes;
+ * bursts of invalidations collapse into one reload, and a reload that finds
+ * the same content (e.g. after a sync only flipped bookkeeping) emits nothing.
+ * Also reloaded at midnight, when "today" and the upcoming window move on.
+ */
+public class DashboardLiveData extends MediatorLiveData<DashboardSnapshot> {
+
+    private static final int UPCOMING_ASSIGNMENT_LIMIT = 3;
+    private static final int RECENT_TASK_LIMIT = 5;
+    private static final long UPCOMING_WINDOW_MS = 7 * 24 * 60 * 60 * 1000L;
+
+    private final AppDatabase db;
+    private final String userId;
+    private final Executor executor;
+
+    private final AtomicBoolean loadPending = new AtomicBoolean();
+    private DashboardSnapshot lastLoaded;
+
+    // Set on the main thread; the executor brings the tracker in line with it
+    private volatile boolean wantObserving;
+    private final Object observerLock = new Object();
+    private boolean observing; // Guarded by observerLock
+
+    private final InvalidationTracker.Observer tableObserver =
+        new InvalidationTracker.Observer("classes", "class_meetings", "assignments", "tasks") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                refresh();
+            }
+        };
+
+    DashboardLiveData(AppDatabase db, String userId, Executor executor) {
+        this.db = db;
+        this.userId = userId;
+        this.executor = executor;
+        addSource(new EpochDayLiveData(), day -> refresh());
+    }
+
+    @Override
+    protected void onActive() {
+        super.onActive();
+        wantObserving = true;
+        executor.execute(this::updateObserver);
+        refresh();
+    }
+
+    @Override
+    protected void onInactive() {
+        super.onInactive();
+        wantObserving = false;
+        executor.execute(this::updateObserver);
+    }
+
+    /**
+     * Register or unregister the table observer to match the latest wanted
+     * state. Registering may sync Room's triggers, so this runs off the main
+     * thread; tasks may run in any order on the pool, but each applies the
+     * current state, so a quick inactive/active flip cannot leak or drop it.
+     */
+    private void updateObserver() {
+        synchronized (observerLock) {
+            boolean want = wantObserving;
+            if (want == observing) return;
+            if (want) {
+                db.getInvalidationTracker().addObserver(tableObserver);
+            } else {
+                db.getInvalidationTracker().removeObserver(tableObserver);
+            }
+            observing = want;
+        }
+    }
+
+    /**
+     * Reload now, e.g. when the next class has ended. Coalesces with a
+     * reload that is already queued.
+     */
+    public void refresh() {
+        if (!loadPending.compareAndSet(false, true)) return;
+        executor.execute(() -> {
+            loadPending.set(false);
+            long startedAt = Metrics.start();
+            DashboardSnapshot snapshot = db.runInTransaction(this::load);
+            Metrics.getInstance().timeSince(Metrics.DB_DASHBOARD, startedAt);
+            publish(snapshot);
+        });
+    }
+
+    private synchronized void publish(DashboardSnapshot snapshot) {
+        if (snapshot.equals(lastLoaded)) return;
+        lastLoaded = snapshot;
+        postValue(snapshot);
+    }
+    
+    private DashboardSnapshot load() {
+        long now = System.currentTimeMillis();
+        ClassRow nextClass = db.classDao().getNextClassForDay(userId,
+            DateTimeUtils.getCurrentDayOfWeek(), DateTimeUtils.getCurrentMinuteOfDay());
+        List<AssignmentRow> assignments = db.assignmentDao().getUpcomingRows(userId,
+            now, now + UPCOMING_WINDOW_MS, UPCOMING_ASSIGNMENT_LIMIT);
+        int taskCount = db.taskDao().getIncompleteCountForUser(userId);
+        List<TaskRow> tasks = db.taskDao().getRecentIncompleteRows(userId, RECENT_TASK_LIMIT);
+        return new DashboardSnapshot(nextClass, assignments, taskCount, tasks);
+    }
+}
@@ -4,23 +4,57 @@ import android.content.Context;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.studenthub.data.local.dao.AssignmentDao;
 import com.studenthub.data.local.dao.ClassDao;
+import com.studenthub.data.local.dao.FocusDao;
+import com.studenthub.data.local.dao.OutboxDao;
+import com.studenthub.data.local.dao.SearchDao;
 import com.studenthub.data.local.dao.TaskDao;
 import com.studenthub.data.local.database.AppDatabase;
 import com.studenthub.data.local.entity.AssignmentEntity;
 import com.studenthub.data.local.entity.ClassEntity;
+import com.studenthub.data.local.entity.FocusSessionEntity;
+import com.studenthub.data.local.entity.OutboxEntity;
+import com.studenthub.data.local.entity.TagEntity;
 import com.studenthub.data.local.entity.TaskEntity;
+import com.studenthub.data.local.model.AssignmentRow;
+import com.studenthub.data.local.model.ClassRow;
+import com.studenthub.data.local.model.ClassWithMeetings;
+import com.studenthub.data.local.model.FocusStats;
+import com.studenthub.data.local.model.SearchResult;
 import com.studenthub.data.remote.FirestoreManager;
+import com.studenthub.data.sync.SyncEngine;
+import com.studenthub.data.sync.SyncPipeline;
+import com.studenthub.diagnostics.Metrics;
+import com.studenthub.reminder.ReminderScheduler;
+import com.studenthub.util.DateTimeUtils;
+import com.studenthub.util.FtsUtils;
 import com.studenthub.util.NetworkUtils;
 import com.studenthub.util.PreferencesManager;
+import com.studenthub.worker.SyncWorker;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Main repository for data operations.
@@ -36,23 +70,54 @@ public class DataRepository {
     
     private static final String TAG = "DataRepository";
     
+    private static final int PAGE_SIZE = 30;
+    
+    // Candidates ranked per source; merged results are capped again
+    private static final int SEARCH_CANDIDATES = 100;
+    private static final int SEARCH_LIMIT = 50;
+    
+    // Live listener re-attach backoff
+    private static final long LIVE_SYNC_RETRY_BASE_MS = 5_000;
+    private static final long LIVE_SYNC_RETRY_MAX_MS = 10 * 60_000;
+    
     private static DataRepository instance;
     
+    private final Context context;
+    private final AppDatabase db;
     private final ClassDao classDao;
     private final AssignmentDao assignmentDao;
     private final TaskDao taskDao;
+    private final OutboxDao outboxDao;
+    private final FocusDao focusDao;
+    private final SearchDao searchDao;
     private final FirestoreManager firestoreManager;
     private final NetworkUtils networkUtils;
     private final ExecutorService executor;
+    private final SyncEngine syncEngine;
+    private final SyncPipeline syncPipeline;
+    private final ReminderScheduler reminders;
+    private final Metrics metrics = Metrics.getInstance();
+    private final ScheduledExecutorService liveSyncRetryTimer = Executors.newSingleThreadScheduledExecutor();
+    
+    // Guarded by this
+    private ScheduledFuture<?> liveSyncRetry;
+    private int liveSyncFailures;
     
     private DataRepository(Context context) {
-        AppDatabase db = AppDatabase.getInstance(context);
+        this.context = context;
+        db = AppDatabase.getInstance(context);
         classDao = db.classDao();
         assignmentDao = db.assignmentDao();
         taskDao = db.taskDao();
+        outboxDao = db.outboxDao();
+        focusDao = db.focusDao();
+        searchDao = db.searchDao();
         firestoreManager = FirestoreManager.getInstance();
         networkUtils = NetworkUtils.getInstance(context);
         executor = Executors.newFixedThreadPool(4);
+        syncEngine = new SyncEngine(db, firestoreManager, executor);
+        syncPipeline = new SyncPipeline(db, syncEngine, firestoreManager, executor);
+        reminders = ReminderScheduler.getInstance(context);
     }
     
     public static synchronized DataRepository getInstance(Context context) {
@@ -70,18 +135,71 @@ public class DataRepository {
         return user != null ? user.getUid() : null;
     }
     
+    /**
+     * Only re-emit when the rows' content changes. Room re-runs a query on any
+     * write to its tables, including sync bookkeeping such as markSynced, and
+     * entity equality ignores those fields.
+     */
+    private static <T> LiveData<T> distinct(LiveData<T> source) {
+        return Transformations.distinctUntilChanged(source);
+    }
+    
+    /**
+     * Pages sized to a couple of screens; no placeholders so adapters never bind nulls.
+     */
+    private static PagingConfig pagingConfig() {
+        return new PagingConfig(PAGE_SIZE, PAGE_SIZE, false);
+    }
+    
     // ========== CLASS OPERATIONS ==========
     
     public LiveData<List<ClassEntity>> getAllClasses() {
         String userId = getUserId();
         if (userId == null) return null;
-        return classDao.getAllForUser(userId);
+        return distinct(classDao.getAllForUser(userId));
     }
     
     public LiveData<List<ClassEntity>> getClassesForDay(int dayOfWeek) {
         String userId = getUserId();
         if (userId == null) return null;
-        return classDao.getClassesForDayLiveData(userId, String.valueOf(dayOfWeek));
+        return distinct(classDao.getClassesForDayLiveData(userId, dayOfWeek));
+    }
+    
+    /**
+     * List rows for all classes, without notes or sync fields.
+     */
+    public LiveData<List<ClassRow>> getClassRows() {
+        String userId = getUserId();
+        if (userId == null) return null;
+        return distinct(classDao.getRowsForUser(userId));
+    }
+    
+    /**
+     * List rows for a day's classes, ordered by start time.
+     */
+    public LiveData<List<ClassRow>> getClassRowsForDay(int dayOfWeek) {
+        String userId = getUserId();
+        if (userId == null) return null;
+        return distinct(classDao.getRowsForDay(userId, dayOfWeek));
+    }
+    
+    /**
+     * Get a day's classes with their meetings, ordered by start time.
+     */
+    public LiveData<List<ClassWithMeetings>> getScheduleForDay(int dayOfWeek) {
+        String userId = getUserId();
+        if (userId == null) return null;
+        return distinct(classDao.getScheduleForDay(userId, dayOfWeek));
+    }
+    
+    /**
+     * Home dashboard state, reloaded in one transaction whenever classes,
+     * assignments or tasks change.
+     */
+    public DashboardLiveData getDashboard() {
+        String userId = getUserId();
+        if (userId == null) return null;
+        return new DashboardLiveData(db, userId, executor);
     }
     
     public void getClassesForDaySync(int dayOfWeek, OnDataCallback<List<ClassEntity>> callback) {
@@ -91,13 +209,13 @@ public class DataRepository {
             return;
         }
         executor.execute(() -> {
-            List<ClassEntity> classes = classDao.getClassesForDay(userId, String.valueOf(dayOfWeek));
+            List<ClassEntity> classes = classDao.getClassesForDay(userId, dayOfWeek);
             callback.onSuccess(classes);
         });
     }
     
     public LiveData<ClassEntity> getClassById(String id) {
-        return classDao.getByIdLiveData(id);
+        return distinct(classDao.getByIdLiveData(id));
     }
     
     public void saveClass(ClassEntity classEntity, OnCompleteCallback callback) {
@@ -111,50 +229,30 @@ public class DataRepository {
         classEntity.markUpdated();
         
         executor.execute(() -> {
-            // Save locally first
-            classDao.insert(classEntity);
-            
-            // Try to sync if online
-            if (networkUtils.checkConnection()) {
-                firestoreManager.saveClass(classEntity, new FirestoreManager.OnCompleteListener() {
-                    @Override
-                    public void onSuccess() {
-                        executor.execute(() -> classDao.markSynced(classEntity.getId()));
-                        if (callback != null) callback.onSuccess();
-                    }
-                    
-                    @Override
-                    public void onFailure(Exception e) {
-                        Log.w(TAG, "Cloud sync failed, will retry later", e);
-                        if (callback != null) callback.onSuccess(); // Local save succeeded
-                    }
-                });
-            } else {
-                if (callback != null) callback.onSuccess();
-            }
+            saveAndEnqueue(userId, FirestoreManager.COLLECTION_CLASSES, classEntity.getId(), () -> {
+                ClassEntity stored = classDao.getById(classEntity.getId());
+                Set<String> changed = stored != null && !stored.isDeleted()
+                    ? classEntity.changedFieldsSince(stored) : null;
+                if (changed == null || !changed.isEmpty()) classDao.save(classEntity);
+                return changed;
+            });
+            reminders.onClassChanged(classEntity.getId());
+            if (callback != null) callback.onSuccess();
         });
     }
     
     public void deleteClass(String classId, OnCompleteCallback callback) {
+        String userId = getUserId();
+        if (userId == null) {
+            if (callback != null) callback.onError(new Exception("Not logged in"));
+            return;
+        }
+        
         executor.execute(() -> {
-            classDao.softDelete(classId, System.currentTimeMillis());
-            
-            if (networkUtils.checkConnection()) {
-                firestoreManager.deleteClass(classId, new FirestoreManager.OnCompleteListener() {
-                    @Override
-                    public void onSuccess() {
-                        executor.execute(() -> classDao.deleteById(classId));
-                        if (callback != null) callback.onSuccess();
-                    }
-                    
-                    @Override
-                    public void onFailure(Exception e) {
-                        if (callback != null) callback.onSuccess();
-                    }
-                });
-            } else {
-                if (callback != null) callback.onSuccess();
-            }
+            writeAndEnqueue(userId, FirestoreManager.COLLECTION_CLASSES, classId, OutboxEntity.OP_DELETE, null,
+                () -> classDao.softDelete(classId, System.currentTimeMillis()));
+            reminders.onClassChanged(classId);
+            if (callback != null) callback.onSuccess();
         });
     }
     
@@ -163,13 +261,24 @@ public class DataRepository {
     public LiveData<List<AssignmentEntity>> getAllAssignments() {
         String userId = getUserId();
         if (userId == null) return null;
-        return assignmentDao.getAllForUser(userId);
+        return distinct(assignmentDao.getAllForUser(userId));
     }
     
     public LiveData<List<AssignmentEntity>> getIncompleteAssignments() {
         String userId = getUserId();
         if (userId == null) return null;
-        return assignmentDao.getIncompleteForUser(userId);
+        return distinct(assignmentDao.getIncompleteForUser(userId));
+    }
+    
+    /**
+     * Paged assignments ordered by completion then due date.
+     */
+    public LiveData<PagingData<AssignmentRow>> getAssignmentsPaged(boolean includeCompleted) {
+        String userId = getUserId();
+        if (userId == null) return null;
+        return PagingLiveData.getLiveData(new Pager<>(pagingConfig(), () -> includeCompleted
+            ? assignmentDao.getAllRowsPaged(userId)
+            : assignmentDao.getIncompleteRowsPaged(userId)));
     }
     
     public void getUpcomingAssignments(int limit, OnDataCallback<List<AssignmentEntity>> callback) {
@@ -187,7 +296,7 @@ public class DataRepository {
     }
     
     public LiveData<AssignmentEntity> getAssignmentById(String id) {
-        return assignmentDao.getByIdLiveData(id);
+        return distinct(assignmentDao.getByIdLiveData(id));
     }
     
     public void saveAssignment(AssignmentEntity assignment, OnCompleteCallback callback) {
@@ -201,71 +310,46 @@ public class DataRepository {
         assignment.markUpdated();
         
         executor.execute(() -> {
-            assignmentDao.insert(assignment);
-            
-            if (networkUtils.checkConnection()) {
-                firestoreManager.saveAssignment(assignment, new FirestoreManager.OnCompleteListener() {
-                    @Override
-                    public void onSuccess() {
-                        executor.execute(() -> assignmentDao.markSynced(assignment.getId()));
-                        if (callback != null) callback.onSuccess();
-                    }
-                    
-                    @Override
-                    public void onFailure(Exception e) {
-                        if (callback != null) callback.onSuccess();
-                    }
-                });
-            } else {
-                if (callback != null) callback.onSuccess();
-            }
+            saveAndEnqueue(userId, FirestoreManager.COLLECTION_ASSIGNMENTS, assignment.getId(), () -> {
+                AssignmentEntity stored = assignmentDao.getById(assignment.getId());
+                Set<String> changed = stored != null && !stored.isDeleted()
+                    ? assignment.changedFieldsSince(stored) : null;
+                if (changed == null || !changed.isEmpty()) assignmentDao.insert(assignment);
+                return changed;
+            });
+            reminders.onAssignmentChanged(assignment.getId());
+            if (callback != null) callback.onSuccess();
         });
     }
     
     public void setAssignmentCompleted(String id, boolean completed, OnCompleteCallback callback) {
+        String userId = getUserId();
+        if (userId == null) {
+            if (callback != null) callback.onError(new Exception("Not logged in"));
+            return;
+        }
+        
         executor.execute(() -> {
-            assignmentDao.setCompleted(id, completed, System.currentTimeMillis());
-            
-            AssignmentEntity assignment = assignmentDao.getById(id);
-            if (assignment != null && networkUtils.checkConnection()) {
-                firestoreManager.saveAssignment(assignment, new FirestoreManager.OnCompleteListener() {
-                    @Override
-                    public void onSuccess() {
-                        executor.execute(() -> assignmentDao.markSynced(id));
-                        if (callback != null) callback.onSuccess();
-                    }
-                    
-                    @Override
-                    public void onFailure(Exception e) {
-                        if (callback != null) callback.onSuccess();
-                    }
-                });
-            } else {
-                if (callback != null) callback.onSuccess();
-            }
+            writeAndEnqueue(userId, FirestoreManager.COLLECTION_ASSIGNMENTS, id, OutboxEntity.OP_PATCH,
+                Collections.singletonList(FirestoreManager.FIELD_COMPLETED),
+                () -> assignmentDao.setCompleted(id, completed, System.currentTimeMillis()));
+            reminders.onAssignmentChanged(id);
+            if (callback != null) callback.onSuccess();
         });
     }
     
     public void deleteAssignment(String assignmentId, OnCompleteCallback callback) {
+        String userId = getUserId();
+        if (userId == null) {
+            if (callback != null) callback.onError(new Exception("Not logged in"));
+            return;
+        }
+        
         executor.execute(() -> {
-            assignmentDao.softDelete(assignmentId, System.currentTimeMillis());
-            
-            if (networkUtils.checkConnection()) {
-                firestoreManager.deleteAssignment(assignmentId, new FirestoreManager.OnCompleteListener() {
-                    @Override
-                    public void onSuccess() {
-                        executor.execute(() -> assignmentDao.deleteById(assignmentId));
-                        if (callback != null) callback.onSuccess();
-                    }
-                    
-                    @Override
-                    public void onFailure(Exception e) {
-                        if (callback != null) callback.onSuccess();
-                    }
-                });
-            } else {
-                if (callback != null) callback.onSuccess();
-            }
+            writeAndEnqueue(userId, FirestoreManager.COLLECTION_ASSIGNMENTS, assignmentId, OutboxEntity.OP_DELETE, null,
+                () -> assignmentDao.softDelete(assignmentId, System.currentTimeMillis()));
+            reminders.onAssignmentChanged(assignmentId);
+            if (callback != null) callback.onSuccess();
         });
     }
     
@@ -274,13 +358,42 @@ public class DataRepository {
     public LiveData<List<TaskEntity>> getAllTasks() {
         String userId = getUserId();
         if (userId == null) return null;
-        return taskDao.getAllForUser(userId);
+        return distinct(taskDao.getAllForUser(userId));
     }
     
     public LiveData<List<TaskEntity>> getIncompleteTasks() {
         String userId = getUserId();
         if (userId == null) return null;
-        return taskDao.getIncompleteForUser(userId);
+        return distinct(taskDao.getIncompleteForUser(userId));
+    }
+    
+    /**
+     * Paged tasks, incomplete first, newest first.
+     */
+    public LiveData<PagingData<TaskEntity>> getTasksPaged(boolean includeCompleted) {
+        String userId = getUserId();
+        if (userId == null) return null;
+        return PagingLiveData.getLiveData(new Pager<>(pagingConfig(), () -> includeCompleted
+            ? taskDao.getAllForUserPaged(userId)
+            : taskDao.getIncompleteForUserPaged(userId)));
+    }
+    
+    /**
+     * Tasks carrying a tag, matched case-insensitively, incomplete first.
+     */
+    public LiveData<List<TaskEntity>> getTasksWithTag(String tag) {
+        String userId = getUserId();
+        if (userId == null) return null;
+        return distinct(taskDao.getTasksWithTag(userId, tag));
+    }
+    
+    /**
+     * Tags in use with their task counts, most used first.
+     */
+    public LiveData<List<TagEntity>> getTagCounts() {
+        String userId = getUserId();
+        if (userId == null) return null;
+        return distinct(taskDao.getTagCounts(userId));
     }
     
     public void getTasksForToday(OnDataCallback<List<TaskEntity>> callback) {
@@ -310,7 +423,7 @@ public class DataRepository {
     }
     
     public LiveData<TaskEntity> getTaskById(String id) {
-        return taskDao.getByIdLiveData(id);
+        return distinct(taskDao.getByIdLiveData(id));
     }
     
     public void saveTask(TaskEntity task, OnCompleteCallback callback) {
@@ -324,220 +437,315 @@ public class DataRepository {
         task.markUpdated();
         
         executor.execute(() -> {
-            taskDao.insert(task);
-            
-            if (networkUtils.checkConnection()) {
-                firestoreManager.saveTask(task, new FirestoreManager.OnCompleteListener() {
-                    @Override
-                    public void onSuccess() {
-                        executor.execute(() -> taskDao.markSynced(task.getId()));
-                        if (callback != null) callback.onSuccess();
-                    }
-                    
-                    @Override
-                    public void onFailure(Exception e) {
-                        if (callback != null) callback.onSuccess();
-                    }
-                });
-            } else {
-                if (callback != null) callback.onSuccess();
-            }
+            saveAndEnqueue(userId, FirestoreManager.COLLECTION_TASKS, task.getId(), () -> {
+                TaskEntity stored = taskDao.getById(task.getId());
+                Set<String> changed = stored != null && !stored.isDeleted()
+                    ? task.changedFieldsSince(stored) : null;
+                if (changed == null || !changed.isEmpty()) taskDao.save(task);
+                return changed;
+            });
+            if (callback != null) callback.onSuccess();
         });
     }
     
     public void setTaskCompleted(String id, boolean completed, OnCompleteCallback callback) {
+        String userId = getUserId();
+        if (userId == null) {
+            if (callback != null) callback.onError(new Exception("Not logged in"));
+            return;
+        }
+        
         executor.execute(() -> {
-            taskDao.setCompleted(id, completed, System.currentTimeMillis());
-            
-            TaskEntity task = taskDao.getById(id);
-            if (task != null && networkUtils.checkConnection()) {
-                firestoreManager.saveTask(task, new FirestoreManager.OnCompleteListener() {
-                    @Override
-                    public void onSuccess() {
-                        executor.execute(() -> taskDao.markSynced(id));
-                        if (callback != null) callback.onSuccess();
-                    }
-                    
-                    @Override
-                    public void onFailure(Exception e) {
-                        if (callback != null) callback.onSuccess();
-                    }
-                });
-            } else {
-                if (callback != null) callback.onSuccess();
-            }
+            writeAndEnqueue(userId, FirestoreManager.COLLECTION_TASKS, id, OutboxEntity.OP_PATCH,
+                Collections.singletonList(FirestoreManager.FIELD_COMPLETED),
+                () -> taskDao.setCompleted(id, completed, System.currentTimeMillis()));
+            if (callback != null) callback.onSuccess();
         });
     }
     
     public void deleteTask(String taskId, OnCompleteCallback callback) {
+        String userId = getUserId();
+        if (userId == null) {
+            if (callback != null) callback.onError(new Exception("Not logged in"));
+            return;
+        }
+        
         executor.execute(() -> {
-            taskDao.softDelete(taskId, System.currentTimeMillis());
-            
-            if (networkUtils.checkConnection()) {
-                firestoreManager.deleteTask(taskId, new FirestoreManager.OnCompleteListener() {
-                    @Override
-                    public void onSuccess() {
-                        executor.execute(() -> taskDao.deleteById(taskId));
-                        if (callback != null) callback.onSuccess();
-                    }
-                    
-                    @Override
-                    public void onFailure(Exception e) {
-                        if (callback != null) callback.onSuccess();
-                    }
-                });
-            } else {
-                if (callback != null) callback.onSuccess();
-            }
+            writeAndEnqueue(userId, FirestoreManager.COLLECTION_TASKS, taskId, OutboxEntity.OP_DELETE, null,
+                () -> taskDao.softDelete(taskId, System.currentTimeMillis()));
+            if (callback != null) callback.onSuccess();
         });
     }
     
     // ========== SYNC OPERATIONS ==========
     
     /**
-     * Perform full sync: push local changes, then pull remote data.
+     * Write a row locally and queue its remote mutation in one transaction.
+     * Must be called off the main thread.
      */
-    public void sync(OnSyncCallback callback) {
+    private void writeAndEnqueue(String userId, String collection, String docId, String op,
+                                 Collection<String> fields, Runnable localWrite) {
+        long startedAt = Metrics.start();
+        db.runInTransaction(() -> {
+            localWrite.run();
+            outboxDao.enqueue(userId, collection, docId, op, fields);
+        });
+        metrics.timeSince(Metrics.DB_WRITE, startedAt);
+        flushOutbox(userId);
+    }
+    
+    /**
+     * Save a row and queue only what changed. The supplier writes the row and
+     * returns the changed fields: null for a new document (whole upsert), empty
+     * when nothing changed (no write, nothing queued).
+     */
+    private void saveAndEnqueue(String userId, String collection, String docId,
+                                Supplier<Set<String>> writeChanged) {
+        long startedAt = Metrics.start();
+        boolean queued = db.runInTransaction(() -> {
+            Set<String> changed = writeChanged.get();
+            if (changed != null && changed.isEmpty()) return false;
+            outboxDao.enqueue(userId, collection, docId,
+                changed == null ? OutboxEntity.OP_UPSERT : OutboxEntity.OP_PATCH, changed);
+            return true;
+        });
+        metrics.timeSince(Metrics.DB_WRITE, startedAt);
+        if (queued) flushOutbox(userId);
+    }
+    
+    /**
+     * Online, the outbox drains right away; offline, a background sync is
+     * queued to run once the network returns.
+     */
+    private void flushOutbox(String userId) {
+        if (networkUtils.checkConnection()) {
+            syncEngine.requestDrain(userId);
+        } else {
+            SyncWorker.requestSync(context);
+        }
+    }
+    
+    /**
+     * Perform full sync: push, pull, merge, cleanup. The callback fires once
+     * every stage has finished. A sync requested while one is already running
+     * joins it instead of starting another.
+     * 
+     * Cancelling the returned future withdraws only this caller; the sync
+     * itself stops once nobody else is waiting on it. Null when the sync
+     * could not start, after the callback has reported why.
+     */
+    public Future<Void> sync(OnSyncCallback callback) {
         String userId = getUserId();
         if (userId == null) {
             callback.onError(new Exception("Not logged in"));
-            return;
+            return null;
         }
         
         if (!networkUtils.checkConnection()) {
             callback.onError(new Exception("No internet connection"));
-            return;
+            return null;
         }
         
-        executor.execute(() -> {
-            try {
-                // Step 1: Push unsynced local changes
-                pushLocalChanges(userId);
-                
-                // Step 2: Pull remote changes
-                pullRemoteChanges(userId, callback);
-                
-            } catch (Exception e) {
-                Log.e(TAG, "Sync error", e);
-                callback.onError(e);
+        CompletableFuture<Void> view = syncPipeline.run(userId, callback::onProgress);
+        view.whenComplete((v, e) -> {
+            if (e == null) {
+                // Pulled changes may move any reminder
+                reminders.reschedule();
+                callback.onSuccess();
+            } else {
+                callback.onError(e instanceof Exception ? (Exception) e : new Exception(e));
             }
         });
+        return view;
     }
     
-    private void pushLocalChanges(String userId) {
-        // Push unsynced classes
-        List<ClassEntity> unsyncedClasses = classDao.getUnsyncedClasses(userId);
-        for (ClassEntity c : unsyncedClasses) {
-            if (c.isDeleted()) {
-                firestoreManager.deleteClass(c.getId(), new FirestoreManager.OnCompleteListener() {
-                    @Override public void onSuccess() {}
-                    @Override public void onFailure(Exception e) {}
-                });
-            } else {
-                firestoreManager.saveClass(c, new FirestoreManager.OnCompleteListener() {
-                    @Override public void onSuccess() { classDao.markSynced(c.getId()); }
-                    @Override public void onFailure(Exception e) {}
-                });
-            }
-        }
-        
-        // Push unsynced assignments
-        List<AssignmentEntity> unsyncedAssignments = assignmentDao.getUnsyncedAssignments(userId);
-        for (AssignmentEntity a : unsyncedAssignments) {
-            if (a.isDeleted()) {
-                firestoreManager.deleteAssignment(a.getId(), new FirestoreManager.OnCompleteListener() {
-                    @Override public void onSuccess() {}
-                    @Override public void onFailure(Exception e) {}
-                });
-            } else {
-                firestoreManager.saveAssignment(a, new FirestoreManager.OnCompleteListener() {
-                    @Override public void onSuccess() { assignmentDao.markSynced(a.getId()); }
-                    @Override public void onFailure(Exception e) {}
-                });
-            }
-        }
+    /**
+     * Cancel the running sync, if any, for every caller waiting on it,
+     * e.g. on logout.
+     */
+    public void cancelSync() {
+        syncPipeline.cancel();
+    }
+    
+    // ========== FOCUS OPERATIONS ==========
+    
+    /**
+     * Store a finished or interrupted session and update the rollups.
+     * Focus history is local to the device and not synced.
+     */
+    public void recordFocusSession(int type, long startedAt, long endedAt, long durationMs,
+                                   boolean completed, String taskId) {
+        String userId = getUserId();
+        if (userId == null) return;
+        executor.execute(() -> {
+            long epochDay = DateTimeUtils.getEpochDay(endedAt);
+            focusDao.recordSession(new FocusSessionEntity(userId, type, startedAt, endedAt,
+                durationMs, completed, taskId), epochDay, DateTimeUtils.getWeekStart(epochDay));
+        });
+    }
+    
+    /**
+     * Today's and this week's focus totals and the current streak. Moves on
+     * to the new day and week at midnight while observed.
+     */
+    public LiveData<FocusStats> getFocusStats() {
+        String userId = getUserId();
+        if (userId == null) return null;
+        return distinct(Transformations.switchMap(new EpochDayLiveData(),
+            today -> focusDao.getStats(userId, today, DateTimeUtils.getWeekStart(today))));
+    }
+    
+    /**
+     * Completed focus sessions since the last long break, for the break cycle.
+     */
+    public void getFocusCountSinceLongBreak(OnDataCallback<Integer> callback) {
+        String userId = getUserId();
+        executor.execute(() -> callback.onSuccess(userId != null ? focusDao.getFocusCountSinceLongBreak(userId) : 0));
+    }
+    
+    // ========== SEARCH ==========
+    
+    /**
+     * Prefix search across assignments, tasks and classes, ranked by term
+     * rarity and field (titles and names weigh most) and merged best first.
+     * Runs on the calling thread; see {@link #newSearch()} for as-you-type use.
+     */
+    public List<SearchResult> search(String query) {
+        String userId = getUserId();
+        String match = FtsUtils.toPrefixQuery(query);
+        if (userId == null || match == null) return Collections.emptyList();
         
-        // Push unsynced tasks
-        List<TaskEntity> unsyncedTasks = taskDao.getUnsyncedTasks(userId);
-        for (TaskEntity t : unsyncedTasks) {
-            if (t.isDeleted()) {
-                firestoreManager.deleteTask(t.getId(), new FirestoreManager.OnCompleteListener() {
-                    @Override public void onSuccess() {}
-                    @Override public void onFailure(Exception e) {}
-                });
-            } else {
-                firestoreManager.saveTask(t, new FirestoreManager.OnCompleteListener() {
-                    @Override public void onSuccess() { taskDao.markSynced(t.getId()); }
-                    @Override public void onFailure(Exception e) {}
-                });
-            }
+        long startedAt = Metrics.start();
+        List<SearchResult> results = new ArrayList<>();
+        db.runInTransaction(() -> {
+            // Column weights follow the FTS entities' declaration order
+            rank(results, searchDao.searchAssignments(userId, match, SEARCH_CANDIDATES), 3, 2, 1);
+            rank(results, searchDao.searchTasks(userId, match, SEARCH_CANDIDATES), 3, 2);
+            rank(results, searchDao.searchClasses(userId, match, SEARCH_CANDIDATES), 3, 2, 2, 1);
+        });
+        results.sort(Comparator.comparingDouble((SearchResult r) -> r.score).reversed());
+        metrics.timeSince(Metrics.DB_SEARCH, startedAt);
+        return results.size() > SEARCH_LIMIT ? new ArrayList<>(results.subList(0, SEARCH_LIMIT)) : results;
+    }
+    
+    private static void rank(List<SearchResult> into, List<SearchResult> hits, double... weights) {
+        for (SearchResult hit : hits) {
+            hit.score = FtsUtils.score(hit.matchInfo, weights);
+            hit.matchInfo = null;
+            into.add(hit);
         }
     }
     
-    private void pullRemoteChanges(String userId, OnSyncCallback callback) {
-        // Pull classes
-        firestoreManager.fetchClasses(new FirestoreManager.OnFetchClassesListener() {
-            @Override
-            public void onSuccess(List<ClassEntity> remoteClasses) {
-                executor.execute(() -> {
-                    for (ClassEntity remote : remoteClasses) {
-                        ClassEntity local = classDao.getById(remote.getId());
-                        if (local == null || remote.getUpdatedAt() > local.getUpdatedAt()) {
-                            classDao.insert(remote);
-                        }
-                    }
-                });
+    /**
+     * A debounced search for a search field: feed it every keystroke with
+     * {@link SearchLiveData#setQuery} and observe the results.
+     */
+    public SearchLiveData newSearch() {
+        return new SearchLiveData(this, executor);
+    }
+    
+    // ========== LIVE SYNC ==========
+    
+    /**
+     * Attach Firestore snapshot listeners if live sync is enabled and a user is
+     * signed in. Each snapshot's document changes are merged into Room in one
+     * transaction. Safe to call repeatedly.
+     */
+    public void startLiveSync() {
+        String userId = getUserId();
+        PreferencesManager prefs = PreferencesManager.getInstance();
+        if (userId == null || !prefs.isLiveSyncEnabled()) return;
+        
+        firestoreManager.startLiveSync(
+            prefs.getSyncWatermark(userId, FirestoreManager.COLLECTION_CLASSES),
+            prefs.getSyncWatermark(userId, FirestoreManager.COLLECTION_ASSIGNMENTS),
+            prefs.getSyncWatermark(userId, FirestoreManager.COLLECTION_TASKS),
+            new FirestoreManager.OnLiveChangesListener() {
+                @Override
+                public void onClassChanges(List<ClassEntity> upserted, List<String> removedIds, long highWaterMark) {
+                    onLiveSyncDelivered();
+                    executor.execute(() -> {
+                        long startedAt = Metrics.start();
+                        db.runInTransaction(() -> {
+                            classDao.mergeRemote(upserted);
+                            if (!removedIds.isEmpty()) classDao.deleteSyncedByIds(removedIds);
+                        });
+                        metrics.timeSince(Metrics.DB_LIVE_MERGE, startedAt);
+                        PreferencesManager.getInstance().advanceSyncWatermark(userId, FirestoreManager.COLLECTION_CLASSES, highWaterMark);
+                        reminders.reschedule();
+                    });
+                }
                 
-                // Pull assignments
-                firestoreManager.fetchAssignments(new FirestoreManager.OnFetchAssignmentsListener() {
-                    @Override
-                    public void onSuccess(List<AssignmentEntity> remoteAssignments) {
-                        executor.execute(() -> {
-                            for (AssignmentEntity remote : remoteAssignments) {
-                                AssignmentEntity local = assignmentDao.getById(remote.getId());
-                                if (local == null || remote.getUpdatedAt() > local.getUpdatedAt()) {
-                                    assignmentDao.insert(remote);
-                                }
-                            }
+                @Override
+                public void onAssignmentChanges(List<AssignmentEntity> upserted, List<String> removedIds, long highWaterMark) {
+                    onLiveSyncDelivered();
+                    executor.execute(() -> {
+                        long startedAt = Metrics.start();
+                        db.runInTransaction(() -> {
+                            assignmentDao.mergeRemote(upserted);
+                            if (!removedIds.isEmpty()) assignmentDao.deleteSyncedByIds(removedIds);
                         });
-                        
-                        // Pull tasks
-                        firestoreManager.fetchTasks(new FirestoreManager.OnFetchTasksListener() {
-                            @Override
-                            public void onSuccess(List<TaskEntity> remoteTasks) {
-                                executor.execute(() -> {
-                                    for (TaskEntity remote : remoteTasks) {
-                                        TaskEntity local = taskDao.getById(remote.getId());
-                                        if (local == null || remote.getUpdatedAt() > local.getUpdatedAt()) {
-                                            taskDao.insert(remote);
-                                        }
-                                    }
-                                    
-                                    // Update last sync time
-                                    PreferencesManager.getInstance().setLastSyncTime(System.currentTimeMillis());
-                                    callback.onSuccess();
-                                });
-                            }
-                            
-                            @Override
-                            public void onFailure(Exception e) {
-                                callback.onError(e);
-                            }
+                        metrics.timeSince(Metrics.DB_LIVE_MERGE, startedAt);
+                        PreferencesManager.getInstance().advanceSyncWatermark(userId, FirestoreManager.COLLECTION_ASSIGNMENTS, highWaterMark);
+                        reminders.reschedule();
+                    });
+                }
+                
+                @Override
+                public void onTaskChanges(List<TaskEntity> upserted, List<String> removedIds, long highWaterMark) {
+                    onLiveSyncDelivered();
+                    executor.execute(() -> {
+                        long startedAt = Metrics.start();
+                        db.runInTransaction(() -> {
+                            taskDao.mergeRemote(upserted);
+                            if (!removedIds.isEmpty()) taskDao.deleteSyncedByIds(removedIds);
                         });
-                    }
-                    
-                    @Override
-                    public void onFailure(Exception e) {
-                        callback.onError(e);
-                    }
-                });
-            }
-            
-            @Override
-            public void onFailure(Exception e) {
-                callback.onError(e);
+                        metrics.timeSince(Metrics.DB_LIVE_MERGE, startedAt);
+                        PreferencesManager.getInstance().advanceSyncWatermark(userId, FirestoreManager.COLLECTION_TASKS, highWaterMark);
+                    });
+                }
+                
+                @Override
+                public void onFailure(Exception e) {
+                    Log.w(TAG, "Live sync listener failed", e);
+                    firestoreManager.stopLiveSync();
+                    scheduleLiveSyncRetry();
+                }
+            });
+    }
+    
+    /**
+     * Detach all snapshot listeners.
+     */
+    public void stopLiveSync() {
+        synchronized (this) {
+            if (liveSyncRetry != null) {
+                liveSyncRetry.cancel(false);
+                liveSyncRetry = null;
             }
-        });
+            liveSyncFailures = 0;
+        }
+        firestoreManager.stopLiveSync();
+    }
+    
+    /**
+     * Re-attach failed listeners with exponential backoff. The retry goes
+     * through {@link #startLiveSync()}, so it does nothing if live sync was
+     * turned off or the user signed out meanwhile. All three listeners may
+     * fail together; they share one pending retry.
+     */
+    private synchronized void scheduleLiveSyncRetry() {
+        if (liveSyncRetry != null && !liveSyncRetry.isDone()) return;
+        long delay = Math.min(LIVE_SYNC_RETRY_BASE_MS << Math.min(liveSyncFailures, 10), LIVE_SYNC_RETRY_MAX_MS);
+        liveSyncFailures++;
+        liveSyncRetry = liveSyncRetryTimer.schedule(this::startLiveSync, delay, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * A snapshot arrived, so the listeners are healthy again.
+     */
+    private synchronized void onLiveSyncDelivered() {
+        liveSyncFailures = 0;
     }
     
     // ========== CALLBACKS ==========
@@ -555,5 +763,10 @@ public class DataRepository {
     public interface OnSyncCallback {
         void onSuccess();
         void onError(Exception e);
+        
+        /**
+         * Called after each push batch is committed and marked synced.
+         */
+        default void onProgress(int batchesDone, int batchCount) {}
     }
 }
@@ -0,0 +1,42 @@
+package com.studenthub.data.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+
+import com.studenthub.util.DateTimeUtils;
+
+/**
+ * Emits the current local epoch day while observed, changing at midnight.
+ *
+ * The handler clock stops while the device sleeps, so the day is also
+ * re-checked whenever an observer becomes active, which covers screens
+ * resumed on a later day or after a time zone change.
+ */
+class EpochDayLiveData extends LiveData<Long> {
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable update = this::update;
+
+    @Override
+    protected void onActive() {
+        update();
+    }
+
+    @Override
+    protected void onInactive() {
+        handler.removeCallbacks(update);
+    }
+
+    private void update() {
+        handler.removeCallbacks(update);
+        long now = System.currentTimeMillis();
+        long today = DateTimeUtils.getEpochDay(now);
+        Long current = getValue();
+        if (current == null || current != today) {
+            setValue(today);
+        }
+        handler.postDelayed(update, DateTimeUtils.getEndOfDay(now) + 1 - now);
+    }
+}
@@ -0,0 +1,67 @@
+package com.studenthub.data.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+
+import com.studenthub.data.local.model.SearchResult;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Emits search results for the latest query typed into a search field.
+ *
+ * Queries run once typing pauses for {@link #DEBOUNCE_MS}; results of a
+ * query that has since been replaced are dropped rather than posted.
+ */
+public class SearchLiveData extends LiveData<List<SearchResult>> {
+
+    private static final long DEBOUNCE_MS = 150;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable runQuery = this::runQuery;
+    private final DataRepository repository;
+    private final Executor executor;
+
+    // Bumped on every query change; a search only posts if it is still current
+    private final AtomicInteger generation = new AtomicInteger();
+    private String query = "";
+
+    SearchLiveData(DataRepository repository, Executor executor) {
+        this.repository = repository;
+        this.executor = executor;
+    }
+
+    /**
+     * Update the query. Must be called on the main thread.
+     */
+    public void setQuery(String text) {
+        String next = text != null ? text.trim() : "";
+        if (next.equals(query)) return;
+        query = next;
+
+        generation.incrementAndGet();
+        handler.removeCallbacks(runQuery);
+        if (next.isEmpty()) {
+            setValue(Collections.emptyList());
+        } else {
+            handler.postDelayed(runQuery, DEBOUNCE_MS);
+        }
+    }
+
+    private void runQuery() {
+        int current = generation.get();
+        String text = query;
+        executor.execute(() -> {
+            if (generation.get() != current) return;
+            List<SearchResult> results = repository.search(text);
+            if (generation.get() == current) {
+                postValue(results);
+            }
+        });
+    }
+}
@@ -0,0 +1,465 @@
+package com.studenthub.data.sync;
+
+import android.util.Log;
+
+import com.studenthub.data.local.dao.AssignmentDao;
+import com.studenthub.data.local.dao.ClassDao;
+import com.studenthub.data.local.dao.OutboxDao;
+import com.studenthub.data.local.dao.TaskDao;
+import com.studenthub.data.local.database.AppDatabase;
+import com.studenthub.data.local.entity.AssignmentEntity;
+import com.studenthub.data.local.entity.ClassEntity;
+import com.studenthub.data.local.entity.OutboxEntity;
+import com.studenthub.data.local.entity.TaskEntity;
+import com.studenthub.data.remote.FirestoreManager;
+import com.studenthub.diagnostics.Metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Drains the outbox of pending remote mutations to Firestore.
+ *
+ * Queued mutations are packed into batches of at most {@link #MAX_BATCH_SIZE}
+ * writes and committed one after another. Field values are read from Room as
+ * each batch is built. A committed batch is cleared from the outbox and marked
+ * synced in a single Room transaction; a failed batch is retried with
+ * exponential backoff. Queue depth, batch latency and retries are recorded
+ * in {@link Metrics}.
+ */
+public class SyncEngine {
+
+    private static final String TAG = "SyncEngine";
+
+    // Leave headroom under Firestore's hard limit of 500 writes per batch
+    public static final int MAX_BATCH_SIZE = 400;
+
+    private static final long RETRY_BASE_DELAY_MS = 5_000;
+    private static final long RETRY_MAX_DELAY_MS = 15 * 60_000;
+
+    // A commit made offline is only acknowledged once the device reconnects
+    private static final long COMMIT_TIMEOUT_MS = 60_000;
+
+    private final AppDatabase db;
+    private final ClassDao classDao;
+    private final AssignmentDao assignmentDao;
+    private final TaskDao taskDao;
+    private final OutboxDao outboxDao;
+    private final FirestoreManager firestoreManager;
+    private final ExecutorService executor;
+    private final Metrics metrics = Metrics.getInstance();
+
+    // One drain at a time, pipeline push and background flush alike, so two
+    // never prepare the same ops. A background request made meanwhile reruns
+    // the flush once; a push waits its turn. Guarded by gate.
+    private final Object gate = new Object();
+    private boolean draining;
+    private boolean drainRequested;
+    private final Deque<Runnable> waitingPushes = new ArrayDeque<>();
+
+    private final ScheduledExecutorService retryTimer = Executors.newSingleThreadScheduledExecutor();
+    private ScheduledFuture<?> pendingRetry;
+
+    public SyncEngine(AppDatabase db, FirestoreManager firestoreManager, ExecutorService executor) {
+        this.db = db;
+        this.classDao = db.classDao();
+        this.assignmentDao = db.assignmentDao();
+        this.taskDao = db.taskDao();
+        this.outboxDao = db.outboxDao();
+        this.firestoreManager = firestoreManager;
+        this.executor = executor;
+    }
+
+    /**
+     * Push every queued mutation for a user, ignoring retry backoff.
+     * Must be called off the main thread. If a drain is in flight, this one
+     * starts after it and reads the outbox it left behind. Cancellation is
+     * checked before each batch; a batch already sent is always recorded so
+     * local state matches what Firestore committed.
+     */
+    public void pushLocalChanges(String userId, BooleanSupplier isCancelled, OnPushListener listener) {
+        synchronized (gate) {
+            if (draining) {
+                waitingPushes.add(() -> pushLocalChanges(userId, isCancelled, listener));
+                return;
+            }
+            draining = true;
+        }
+        drainGated(userId, () -> outboxDao.getPending(userId), isCancelled, listener);
+    }
+
+    /**
+     * Flush mutations whose backoff has expired, in the background.
+     * Safe to call after every local write.
+     */
+    public void requestDrain(String userId) {
+        synchronized (gate) {
+            if (draining) {
+                drainRequested = true;
+                return;
+            }
+            draining = true;
+            drainRequested = false;
+        }
+        executor.execute(() -> drainGated(userId,
+            () -> outboxDao.getDue(userId, System.currentTimeMillis()), () -> false, null));
+    }
+
+    /**
+     * Drain with the gate already taken. The first outcome releases the gate
+     * and reaches the listener; any later one is dropped.
+     */
+    private void drainGated(String userId, Supplier<List<OutboxEntity>> ops, BooleanSupplier isCancelled,
+                            OnPushListener listener) {
+        AtomicBoolean released = new AtomicBoolean();
+        OnPushListener gated = new OnPushListener() {
+            @Override
+            public void onBatchCommitted(int batchNumber, int batchCount, int rowCount) {
+                if (listener != null) listener.onBatchCommitted(batchNumber, batchCount, rowCount);
+            }
+
+            @Override
+            public void onComplete(int pushedRows) {
+                if (!released.compareAndSet(false, true)) return;
+                release(userId);
+                if (listener != null) listener.onComplete(pushedRows);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (!released.compareAndSet(false, true)) return;
+                release(userId);
+                if (listener != null) listener.onError(e);
+            }
+        };
+        try {
+            drain(userId, ops.get(), isCancelled, gated);
+        } catch (RuntimeException e) {
+            // A Room failure while reading or preparing ops must not leave the gate taken
+            Log.e(TAG, "Drain failed", e);
+            gated.onError(e);
+        }
+    }
+
+    /**
+     * Run a drain step on the executor. A Room failure in it is reported
+     * through the gated listener, which releases the gate, instead of
+     * leaving the drain and everyone waiting on it hanging.
+     */
+    private void continueDrain(OnPushListener listener, Runnable step) {
+        executor.execute(() -> {
+            try {
+                step.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Drain failed", e);
+                listener.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Hand the gate to a waiting push first, then to a requested flush;
+     * with neither, arm the retry timer.
+     */
+    private void release(String userId) {
+        Runnable waitingPush;
+        boolean rerun;
+        synchronized (gate) {
+            draining = false;
+            waitingPush = waitingPushes.poll();
+            rerun = waitingPush == null && drainRequested;
+        }
+        if (waitingPush != null) {
+            executor.execute(waitingPush);
+        } else if (rerun) {
+            requestDrain(userId);
+        } else {
+            try {
+                scheduleRetry(userId);
+            } catch (RuntimeException e) {
+                // The next local write or sync drains again
+                Log.e(TAG, "Could not schedule outbox retry", e);
+            }
+        }
+    }
+
+    /**
+     * Arm a single timer for the earliest backed-off mutation.
+     */
+    private synchronized void scheduleRetry(String userId) {
+        if (pendingRetry != null) {
+            pendingRetry.cancel(false);
+            pendingRetry = null;
+        }
+        metrics.gauge(Metrics.OUTBOX_DEPTH, outboxDao.getPendingCount(userId));
+        Long nextAttemptAt = outboxDao.getNextAttemptAt(userId);
+        if (nextAttemptAt == null) return;
+
+        long delay = Math.max(0, nextAttemptAt - System.currentTimeMillis());
+        pendingRetry = retryTimer.schedule(() -> requestDrain(userId), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void drain(String userId, List<OutboxEntity> ops, BooleanSupplier isCancelled,
+                       OnPushListener listener) {
+        metrics.gauge(Metrics.OUTBOX_DEPTH, outboxDao.getPendingCount(userId));
+        List<List<OutboxEntity>> batches = new ArrayList<>();
+        for (int i = 0; i < ops.size(); i += MAX_BATCH_SIZE) {
+            batches.add(ops.subList(i, Math.min(i + MAX_BATCH_SIZE, ops.size())));
+        }
+
+        if (batches.isEmpty()) {
+            listener.onComplete(0);
+            return;
+        }
+
+        commitNext(batches, 0, 0, isCancelled, listener);
+    }
+
+    private void commitNext(List<List<OutboxEntity>> batches, int index, int pushedRows,
+                            BooleanSupplier isCancelled, OnPushListener listener) {
+        if (index >= batches.size()) {
+            listener.onComplete(pushedRows);
+            return;
+        }
+        if (isCancelled.getAsBoolean()) {
+            listener.onError(new CancellationException("Push cancelled after " + index + " batches"));
+            return;
+        }
+
+        PushBatch batch = prepare(batches.get(index));
+        if (batch.mutations.isEmpty()) {
+            listener.onBatchCommitted(index + 1, batches.size(), 0);
+            commitNext(batches, index + 1, pushedRows, isCancelled, listener);
+            return;
+        }
+
+        long startedAt = Metrics.start();
+        // Exactly one of the commit callbacks and the timeout acts on the batch
+        AtomicBoolean settled = new AtomicBoolean();
+        ScheduledFuture<?> timeout = retryTimer.schedule(() -> {
+            if (!settled.compareAndSet(false, true)) return;
+            // Firestore may still send it later; the requeued ops then resend the same state
+            failBatch(batch, index, batches.size(), new TimeoutException(
+                "Batch not acknowledged within " + COMMIT_TIMEOUT_MS + " ms"), listener);
+        }, COMMIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        firestoreManager.commitMutations(batch.mutations, new FirestoreManager.OnCompleteListener() {
+            @Override
+            public void onSuccess() {
+                if (!settled.compareAndSet(false, true)) return;
+                timeout.cancel(false);
+                metrics.timeSince(Metrics.PUSH_BATCH, startedAt);
+                continueDrain(listener, () -> {
+                    markBatchSynced(batch);
+                    listener.onBatchCommitted(index + 1, batches.size(), batch.size());
+                    commitNext(batches, index + 1, pushedRows + batch.size(), isCancelled, listener);
+                });
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (!settled.compareAndSet(false, true)) return;
+                timeout.cancel(false);
+                if (FirestoreManager.isNotFound(e) && batch.hasPatches()) {
+                    // A patched document is gone entirely; resend the batch with full documents
+                    Log.i(TAG, "Batch " + (index + 1) + "/" + batches.size() + " patched a missing document");
+                    continueDrain(listener, () -> {
+                        promotePatches(batches.get(index));
+                        commitNext(batches, index, pushedRows, isCancelled, listener);
+                    });
+                    return;
+                }
+                failBatch(batch, index, batches.size(), e, listener);
+            }
+        });
+    }
+
+    private void failBatch(PushBatch batch, int index, int batchCount, Exception e, OnPushListener listener) {
+        Log.w(TAG, "Batch " + (index + 1) + "/" + batchCount + " failed", e);
+        metrics.event(Metrics.PUSH_BATCH, "batch of " + batch.size() + " failed: " + e);
+        continueDrain(listener, () -> {
+            backOff(batch);
+            listener.onError(e);
+        });
+    }
+
+    /**
+     * Resolve queued ops against the current Room rows. Upserts and patches
+     * whose row is gone or already synced (a newer remote version won) are
+     * dropped unsent.
+     */
+    private PushBatch prepare(List<OutboxEntity> ops) {
+        PushBatch batch = new PushBatch();
+        List<OutboxEntity> obsolete = new ArrayList<>();
+
+        for (OutboxEntity op : ops) {
+            String collection = op.getCollection();
+            String docId = op.getDocId();
+            Object entity;
+            long updatedAt;
+            boolean synced;
+            switch (collection) {
+                case FirestoreManager.COLLECTION_CLASSES: {
+                    ClassEntity c = classDao.getById(docId);
+                    entity = c;
+                    updatedAt = c != null ? c.getUpdatedAt() : 0;
+                    synced = c != null && c.isSynced();
+                    break;
+                }
+                case FirestoreManager.COLLECTION_ASSIGNMENTS: {
+                    AssignmentEntity a = assignmentDao.getById(docId);
+                    entity = a;
+                    updatedAt = a != null ? a.getUpdatedAt() : 0;
+                    synced = a != null && a.isSynced();
+                    break;
+                }
+                case FirestoreManager.COLLECTION_TASKS: {
+                    TaskEntity t = taskDao.getById(docId);
+                    entity = t;
+                    updatedAt = t != null ? t.getUpdatedAt() : 0;
+                    synced = t != null && t.isSynced();
+                    break;
+                }
+                default:
+                    entity = null;
+                    updatedAt = 0;
+                    synced = false;
+            }
+
+            if (op.isDelete()) {
+                // Sent even if the row is already gone; the stamp acknowledges the tombstone
+                long deletedAt = updatedAt > 0 ? updatedAt : System.currentTimeMillis();
+                batch.add(op, FirestoreManager.Mutation.delete(collection, docId, deletedAt), updatedAt);
+            } else if (entity == null || synced) {
+                obsolete.add(op);
+            } else if (op.isPatch()) {
+                batch.add(op, FirestoreManager.Mutation.patch(collection, docId, entity, op.getFieldSet()), updatedAt);
+            } else {
+                batch.add(op, FirestoreManager.Mutation.upsert(collection, docId, entity), updatedAt);
+            }
+        }
+
+        if (!obsolete.isEmpty()) {
+            db.runInTransaction(() -> {
+                for (OutboxEntity op : obsolete) {
+                    outboxDao.deleteIfUnchanged(op.getId(), op.getRevision());
+                }
+            });
+        }
+        return batch;
+    }
+
+    /**
+     * Ops or rows edited again while the batch was in flight stay queued
+     * and dirty so the newer version goes out with the next drain.
+     * Deleted rows stay behind as acknowledged tombstones, so a stale pull
+     * cannot resurrect them; {@link TombstoneCompactor} purges them later.
+     */
+    private void markBatchSynced(PushBatch batch) {
+        db.runInTransaction(() -> {
+            for (int i = 0; i < batch.ops.size(); i++) {
+                OutboxEntity op = batch.ops.get(i);
+                outboxDao.deleteIfUnchanged(op.getId(), op.getRevision());
+
+                String docId = op.getDocId();
+                long updatedAt = batch.updatedAt.get(i);
+                switch (op.getCollection()) {
+                    case FirestoreManager.COLLECTION_CLASSES:
+                        classDao.markSyncedIfUnchanged(docId, updatedAt);
+                        break;
+                    case FirestoreManager.COLLECTION_ASSIGNMENTS:
+                        assignmentDao.markSyncedIfUnchanged(docId, updatedAt);
+                        break;
+                    case FirestoreManager.COLLECTION_TASKS:
+                        taskDao.markSyncedIfUnchanged(docId, updatedAt);
+                        break;
+                }
+            }
+        });
+    }
+
+    /**
+     * Turn every patch in a batch into an upsert, here and in the outbox.
+     * Firestore does not say which document was missing, and an upsert of
+     * a document that still exists is harmless. The local edit is newer
+     * than the remote delete, so last write wins and the row comes back.
+     */
+    private void promotePatches(List<OutboxEntity> ops) {
+        db.runInTransaction(() -> {
+            for (OutboxEntity op : ops) {
+                if (!op.isPatch()) continue;
+                outboxDao.promoteToUpsertIfUnchanged(op.getId(), op.getRevision());
+                op.setOp(OutboxEntity.OP_UPSERT);
+                op.setFields(null);
+            }
+        });
+    }
+
+    private void backOff(PushBatch batch) {
+        metrics.count(Metrics.PUSH_RETRIES, batch.ops.size());
+        long now = System.currentTimeMillis();
+        db.runInTransaction(() -> {
+            for (OutboxEntity op : batch.ops) {
+                int attempts = op.getAttempts() + 1;
+                outboxDao.scheduleRetryIfUnchanged(op.getId(), op.getRevision(), attempts,
+                    now + retryDelay(attempts));
+            }
+        });
+    }
+
+    /**
+     * Exponential backoff with up to 20% jitter, capped at {@link #RETRY_MAX_DELAY_MS}.
+     */
+    static long retryDelay(int attempts) {
+        int shift = Math.min(attempts - 1, 20);
+        long delay = Math.min(RETRY_BASE_DELAY_MS << shift, RETRY_MAX_DELAY_MS);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    /**
+     * One atomic Firestore write batch spanning all three collections.
+     */
+    static class PushBatch {
+        final List<OutboxEntity> ops = new ArrayList<>();
+        final List<FirestoreManager.Mutation> mutations = new ArrayList<>();
+        final List<Long> updatedAt = new ArrayList<>();
+
+        void add(OutboxEntity op, FirestoreManager.Mutation mutation, long rowUpdatedAt) {
+            ops.add(op);
+            mutations.add(mutation);
+            updatedAt.add(rowUpdatedAt);
+        }
+
+        int size() {
+            return mutations.size();
+        }
+
+        boolean hasPatches() {
+            for (OutboxEntity op : ops) {
+                if (op.isPatch()) return true;
+            }
+            return false;
+        }
+    }
+
+    // ========== LISTENERS ==========
+
+    public interface OnPushListener {
+        void onBatchCommitted(int batchNumber, int batchCount, int rowCount);
+        void onComplete(int pushedRows);
+        void onError(Exception e);
+    }
+}
@@ -0,0 +1,332 @@
+package com.studenthub.data.sync;
+
+import android.util.Log;
+
+import com.studenthub.data.local.database.AppDatabase;
+import com.studenthub.data.local.entity.AssignmentEntity;
+import com.studenthub.data.local.entity.ClassEntity;
+import com.studenthub.data.local.entity.TaskEntity;
+import com.studenthub.data.remote.FirestoreManager;
+import com.studenthub.diagnostics.Metrics;
+import com.studenthub.util.PreferencesManager;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs a full sync as explicit, awaited stages:
+ * push -> pull -> merge -> cleanup.
+ *
+ * The returned future completes only after every stage has finished, so
+ * "sync done" means local and remote state have actually converged.
+ * Concurrent requests join the run already in flight instead of starting
+ * a second one, and {@link #cancel()} stops the run at the next stage or
+ * batch boundary. A cancelled run's callers are released at once, but a
+ * stage already under way finishes first, so the next run only starts
+ * once the previous one has left its pipeline. Each stage's latency is
+ * recorded in {@link Metrics}.
+ */
+public class SyncPipeline {
+
+    private static final String TAG = "SyncPipeline";
+
+    private final AppDatabase db;
+    private final SyncEngine syncEngine;
+    private final FirestoreManager firestoreManager;
+    private final ExecutorService executor;
+
+    // Guarded by this
+    private SyncRun inFlight;
+
+    public SyncPipeline(AppDatabase db, SyncEngine syncEngine,
+                        FirestoreManager firestoreManager, ExecutorService executor) {
+        this.db = db;
+        this.syncEngine = syncEngine;
+        this.firestoreManager = firestoreManager;
+        this.executor = executor;
+    }
+
+    /**
+     * Start a sync for the user, or join the one already running for them.
+     * The returned future is a private view: cancelling it leaves the run,
+     * which is only cancelled once every caller that joined it has left.
+     * Use {@link #cancel()} to stop the run regardless of who is waiting.
+     */
+    public synchronized CompletableFuture<Void> run(String userId, ProgressListener progress) {
+        if (inFlight == null || inFlight.result.isDone() || !inFlight.userId.equals(userId)) {
+            SyncRun previous = inFlight;
+            if (previous != null && !previous.result.isDone()) {
+                previous.cancel();
+            }
+            inFlight = new SyncRun(userId);
+            // A cancelled run may still be merging and advancing watermarks
+            inFlight.start(previous != null ? previous.ended : CompletableFuture.completedFuture(null));
+        }
+        SyncRun run = inFlight;
+        run.participants++;
+        if (progress != null) {
+            run.progressListeners.add(progress);
+        }
+        CompletableFuture<Void> view = run.result.thenApply(Function.identity());
+        view.whenComplete((v, e) -> {
+            if (e instanceof CancellationException) {
+                leave(run, progress);
+            }
+        });
+        return view;
+    }
+
+    private synchronized void leave(SyncRun run, ProgressListener progress) {
+        if (progress != null) {
+            run.progressListeners.remove(progress);
+        }
+        if (--run.participants == 0) {
+            run.cancel();
+        }
+    }
+
+    /**
+     * Cancel the in-flight sync, if any, for every caller waiting on it.
+     * Work already committed remotely is still recorded locally; remaining
+     * stages are skipped.
+     */
+    public synchronized void cancel() {
+        if (inFlight != null) {
+            inFlight.cancel();
+        }
+    }
+
+    /**
+     * Whether a run is in flight, including a cancelled one still finishing its stage.
+     */
+    public synchronized boolean isRunning() {
+        return inFlight != null && !inFlight.ended.isDone();
+    }
+
+    private class SyncRun {
+        final String userId;
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        // Completes once the stages have stopped, which may be after result is cancelled
+        final CompletableFuture<Void> ended = new CompletableFuture<>();
+        final List<ProgressListener> progressListeners = new CopyOnWriteArrayList<>();
+        volatile boolean cancelled;
+        // Callers still waiting on the result; guarded by SyncPipeline.this
+        int participants;
+
+        SyncRun(String userId) {
+            this.userId = userId;
+        }
+
+        /**
+         * Run the stages once {@code after} has completed, whatever its outcome.
+         */
+        void start(CompletableFuture<?> after) {
+            Metrics metrics = Metrics.getInstance();
+            metrics.count(Metrics.SYNC_RUNS, 1);
+            long startedAt = Metrics.start();
+            after.handle((v, e) -> null)
+                .thenRunAsync(this::checkNotCancelled, executor)
+                .thenCompose(v -> timed(Metrics.SYNC_PUSH, this::push))
+                .thenCompose(pushed -> timed(Metrics.SYNC_PULL, this::pull))
+                .thenApplyAsync(this::merge, executor)
+                .thenRunAsync(this::cleanup, executor)
+                .whenComplete((v, e) -> {
+                    ended.complete(null);
+                    if (e == null) {
+                        metrics.timeSince(Metrics.SYNC_TOTAL, startedAt);
+                        result.complete(null);
+                    } else {
+                        Throwable cause = unwrap(e);
+                        if (cause instanceof CancellationException) {
+                            metrics.event(Metrics.SYNC_TOTAL, "cancelled");
+                        } else {
+                            Log.e(TAG, "Sync failed", cause);
+                            metrics.count(Metrics.SYNC_FAILURES, 1);
+                            metrics.event(Metrics.SYNC_FAILURES, String.valueOf(cause));
+                        }
+                        result.completeExceptionally(cause);
+                    }
+                });
+        }
+
+        /**
+         * Time an asynchronous stage up to the completion of its future.
+         */
+        private <T> CompletableFuture<T> timed(String stage, Supplier<CompletableFuture<T>> work) {
+            long startedAt = Metrics.start();
+            return work.get().whenComplete((v, e) -> {
+                if (e == null) Metrics.getInstance().timeSince(stage, startedAt);
+            });
+        }
+
+        void cancel() {
+            cancelled = true;
+            result.cancel(false);
+        }
+
+        private void checkNotCancelled() {
+            if (cancelled) {
+                throw new CancellationException("Sync cancelled");
+            }
+        }
+
+        // ---------- Stage 1: push ----------
+
+        private CompletableFuture<Integer> push() {
+            CompletableFuture<Integer> stage = new CompletableFuture<>();
+            syncEngine.pushLocalChanges(userId, () -> cancelled, new SyncEngine.OnPushListener() {
+                @Override
+                public void onBatchCommitted(int batchNumber, int batchCount, int rowCount) {
+                    for (ProgressListener listener : progressListeners) {
+                        listener.onPushProgress(batchNumber, batchCount);
+                    }
+                }
+
+                @Override
+                public void onComplete(int pushedRows) {
+                    stage.complete(pushedRows);
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    stage.completeExceptionally(e);
+                }
+            });
+            return stage;
+        }
+
+        // ---------- Stage 2: pull (collections fetched in parallel) ----------
+
+        private CompletableFuture<RemoteChanges> pull() {
+            checkNotCancelled();
+            PreferencesManager prefs = PreferencesManager.getInstance();
+
+            CompletableFuture<Fetched<ClassEntity>> classes = new CompletableFuture<>();
+            firestoreManager.fetchClasses(
+                prefs.getSyncWatermark(userId, FirestoreManager.COLLECTION_CLASSES),
+                new FirestoreManager.OnFetchClassesListener() {
+                    @Override
+                    public void onSuccess(List<ClassEntity> rows, long highWaterMark) {
+                        classes.complete(new Fetched<>(rows, highWaterMark));
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        classes.completeExceptionally(e);
+                    }
+                });
+
+            CompletableFuture<Fetched<AssignmentEntity>> assignments = new CompletableFuture<>();
+            firestoreManager.fetchAssignments(
+                prefs.getSyncWatermark(userId, FirestoreManager.COLLECTION_ASSIGNMENTS),
+                new FirestoreManager.OnFetchAssignmentsListener() {
+                    @Override
+                    public void onSuccess(List<AssignmentEntity> rows, long highWaterMark) {
+                        assignments.complete(new Fetched<>(rows, highWaterMark));
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        assignments.completeExceptionally(e);
+                    }
+                });
+
+            CompletableFuture<Fetched<TaskEntity>> tasks = new CompletableFuture<>();
+            firestoreManager.fetchTasks(
+                prefs.getSyncWatermark(userId, FirestoreManager.COLLECTION_TASKS),
+                new FirestoreManager.OnFetchTasksListener() {
+                    @Override
+                    public void onSuccess(List<TaskEntity> rows, long highWaterMark) {
+                        tasks.complete(new Fetched<>(rows, highWaterMark));
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        tasks.completeExceptionally(e);
+                    }
+                });
+
+            return CompletableFuture.allOf(classes, assignments, tasks)
+                .thenApply(v -> new RemoteChanges(classes.join(), assignments.join(), tasks.join()));
+        }
+
+        // ---------- Stage 3: merge ----------
+
+        /**
+         * One Room transaction for all three collections. Watermarks advance
+         * only after the merge has been written.
+         */
+        private RemoteChanges merge(RemoteChanges changes) {
+            checkNotCancelled();
+            long startedAt = Metrics.start();
+            db.runInTransaction(() -> {
+                db.classDao().mergeRemote(changes.classes.rows);
+                db.assignmentDao().mergeRemote(changes.assignments.rows);
+                db.taskDao().mergeRemote(changes.tasks.rows);
+            });
+
+            PreferencesManager prefs = PreferencesManager.getInstance();
+            prefs.advanceSyncWatermark(userId, FirestoreManager.COLLECTION_CLASSES, changes.classes.highWaterMark);
+            prefs.advanceSyncWatermark(userId, FirestoreManager.COLLECTION_ASSIGNMENTS, changes.assignments.highWaterMark);
+            prefs.advanceSyncWatermark(userId, FirestoreManager.COLLECTION_TASKS, changes.tasks.highWaterMark);
+            Metrics.getInstance().timeSince(Metrics.SYNC_MERGE, startedAt);
+            return changes;
+        }
+
+        // ---------- Stage 4: cleanup ----------
+
+        private void cleanup() {
+            checkNotCancelled();
+            long startedAt = Metrics.start();
+            PreferencesManager.getInstance().setLastSyncTime(System.currentTimeMillis());
+            Metrics.getInstance().timeSince(Metrics.SYNC_CLEANUP, startedAt);
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException)
+                && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * Rows fetched from one collection plus the watermark they advance to.
+     */
+    private static class Fetched<T> {
+        final List<T> rows;
+        final long highWaterMark;
+
+        Fetched(List<T> rows, long highWaterMark) {
+            this.rows = rows;
+            this.highWaterMark = highWaterMark;
+        }
+    }
+
+    private static class RemoteChanges {
+        final Fetched<ClassEntity> classes;
+        final Fetched<AssignmentEntity> assignments;
+        final Fetched<TaskEntity> tasks;
+
+        RemoteChanges(Fetched<ClassEntity> classes, Fetched<AssignmentEntity> assignments,
+                      Fetched<TaskEntity> tasks) {
+            this.classes = classes;
+            this.assignments = assignments;
+            this.tasks = tasks;
+        }
+    }
+
+    // ========== LISTENERS ==========
+
+    public interface ProgressListener {
+        void onPushProgress(int batchesDone, int batchCount);
+    }
+}
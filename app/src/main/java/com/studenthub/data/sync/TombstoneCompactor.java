@@ -0,0 +1,103 @@
+package com.studenthub.data.sync;
+
+import android.util.Log;
+
+import com.studenthub.data.local.dao.OutboxDao;
+import com.studenthub.data.local.database.AppDatabase;
+import com.studenthub.data.local.entity.AssignmentEntity;
+import com.studenthub.data.local.entity.ClassEntity;
+import com.studenthub.data.local.entity.OutboxEntity;
+import com.studenthub.data.local.entity.TaskEntity;
+import com.studenthub.data.remote.FirestoreManager;
+
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Garbage-collects soft-deleted rows.
+ *
+ * A tombstone lives until its remote delete is acknowledged (synced = 1),
+ * then for a grace period so in-flight pulls cannot resurrect the row.
+ * After that it is purged in small batches, each its own short transaction,
+ * so compaction never holds the write lock for long.
+ */
+public class TombstoneCompactor {
+
+    private static final String TAG = "TombstoneCompactor";
+
+    public static final long TOMBSTONE_GRACE_MS = 24 * 60 * 60 * 1000L;
+    private static final int PURGE_BATCH_SIZE = 500;
+
+    private final AppDatabase db;
+    private final OutboxDao outboxDao;
+
+    public TombstoneCompactor(AppDatabase db) {
+        this.db = db;
+        this.outboxDao = db.outboxDao();
+    }
+
+    /**
+     * Run one compaction pass. Must be called off the main thread.
+     * @return number of tombstones purged
+     */
+    public int compact(long now) {
+        requeueOrphans();
+
+        long before = now - TOMBSTONE_GRACE_MS;
+        int purged = purge(() -> db.classDao().purgeAcknowledgedTombstones(before, PURGE_BATCH_SIZE))
+            + purge(() -> db.assignmentDao().purgeAcknowledgedTombstones(before, PURGE_BATCH_SIZE))
+            + purge(() -> db.taskDao().purgeAcknowledgedTombstones(before, PURGE_BATCH_SIZE));
+
+        Log.d(TAG, "Purged " + purged + " tombstones");
+        return purged;
+    }
+
+    private int purge(IntSupplier batch) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = batch.getAsInt();
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        return total;
+    }
+
+    /**
+     * Safety net: queue a remote delete for unacknowledged tombstones that
+     * have no pending op, so they eventually become purgeable.
+     */
+    private void requeueOrphans() {
+        List<ClassEntity> classes;
+        while (!(classes = db.classDao().getUnqueuedTombstones(PURGE_BATCH_SIZE)).isEmpty()) {
+            List<ClassEntity> chunk = classes;
+            db.runInTransaction(() -> {
+                for (ClassEntity c : chunk) {
+                    outboxDao.enqueue(c.getUserId(), FirestoreManager.COLLECTION_CLASSES, c.getId(),
+                        OutboxEntity.OP_DELETE, null);
+                }
+            });
+        }
+
+        List<AssignmentEntity> assignments;
+        while (!(assignments = db.assignmentDao().getUnqueuedTombstones(PURGE_BATCH_SIZE)).isEmpty()) {
+            List<AssignmentEntity> chunk = assignments;
+            db.runInTransaction(() -> {
+                for (AssignmentEntity a : chunk) {
+                    outboxDao.enqueue(a.getUserId(), FirestoreManager.COLLECTION_ASSIGNMENTS, a.getId(),
+                        OutboxEntity.OP_DELETE, null);
+                }
+            });
+        }
+
+        List<TaskEntity> tasks;
+        while (!(tasks = db.taskDao().getUnqueuedTombstones(PURGE_BATCH_SIZE)).isEmpty()) {
+            List<TaskEntity> chunk = tasks;
+            db.runInTransaction(() -> {
+                for (TaskEntity t : chunk) {
+                    outboxDao.enqueue(t.getUserId(), FirestoreManager.COLLECTION_TASKS, t.getId(),
+                        OutboxEntity.OP_DELETE, null);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.studenthub.diagnostics;
+
+import android.os.Build;
+import android.os.SystemClock;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-process recorder for sync and data-layer metrics, shown and exported
+ * by the diagnostics screen.
+ *
+ * Latencies go into fixed log2 histograms, counts into counters, and the
+ * last value of each gauge is kept. Every record is also appended to a ring
+ * buffer of the latest {@link #MAX_EVENTS} events, so memory stays bounded
+ * however long the process lives. Nothing is persisted; a process restart
+ * starts from zero.
+ */
+public class Metrics {
+
+    public static final int MAX_EVENTS = 512;
+
+    // Sync stage latencies
+    public static final String SYNC_TOTAL = "sync.total";
+    public static final String SYNC_PUSH = "sync.push";
+    public static final String SYNC_PULL = "sync.pull";
+    public static final String SYNC_MERGE = "sync.merge";
+    public static final String SYNC_CLEANUP = "sync.cleanup";
+
+    // Firestore round trips
+    public static final String PUSH_BATCH = "firestore.commit";
+    public static final String FETCH_PREFIX = "firestore.fetch.";
+
+    // Room timings
+    public static final String DB_WRITE = "db.write";
+    public static final String DB_DASHBOARD = "db.dashboard";
+    public static final String DB_SEARCH = "db.search";
+    public static final String DB_LIVE_MERGE = "db.liveMerge";
+
+    // Counters
+    public static final String DOCS_READ = "docs.read";
+    public static final String DOCS_WRITTEN = "docs.written";
+    public static final String BYTES_READ = "bytes.read";
+    public static final String BYTES_WRITTEN = "bytes.written";
+    public static final String PUSH_RETRIES = "push.retries";
+    public static final String SYNC_RUNS = "sync.runs";
+    public static final String SYNC_FAILURES = "sync.failures";
+
+    // Gauges
+    public static final String OUTBOX_DEPTH = "outbox.depth";
+
+    // Bucket i holds durations below 2^i microseconds; the last is open-ended (~67 s)
+    private static final int BUCKETS = 27;
+
+    private static final String KIND_TIMING = "timing";
+    private static final String KIND_COUNT = "count";
+    private static final String KIND_GAUGE = "gauge";
+    private static final String KIND_EVENT = "event";
+
+    private static Metrics instance;
+
+    private final Map<String, Histogram> histograms = new TreeMap<>();
+    private final Map<String, Long> counters = new TreeMap<>();
+    private final Map<String, Long> gauges = new TreeMap<>();
+    private final Event[] events = new Event[MAX_EVENTS];
+    private int nextEvent;
+    private int eventCount;
+    private long startedAt = System.currentTimeMillis();
+
+    private Metrics() {
+    }
+
+    public static synchronized Metrics getInstance() {
+        if (instance == null) {
+            instance = new Metrics();
+        }
+        return instance;
+    }
+
+    /**
+     * Start a measurement; pass the result to {@link #timeSince}.
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Record the time elapsed since {@link #start()} under a histogram.
+     */
+    public void timeSince(String name, long startNanos) {
+        record(name, (System.nanoTime() - startNanos) / 1000);
+    }
+
+    public synchronized void record(String name, long micros) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = new Histogram();
+            histograms.put(name, histogram);
+        }
+        histogram.add(Math.max(0, micros));
+        append(KIND_TIMING, name, micros, null);
+    }
+
+    public synchronized void count(String name, long delta) {
+        if (delta == 0) return;
+        Long current = counters.get(name);
+        counters.put(name, (current != null ? current : 0) + delta);
+        append(KIND_COUNT, name, delta, null);
+    }
+
+    public synchronized void gauge(String name, long value) {
+        gauges.put(name, value);
+        append(KIND_GAUGE, name, value, null);
+    }
+
+    /**
+     * Note something that is not a number, e.g. why a sync failed.
+     */
+    public synchronized void event(String name, String detail) {
+        append(KIND_EVENT, name, 0, detail);
+    }
+
+    public synchronized void reset() {
+        histograms.clear();
+        counters.clear();
+        gauges.clear();
+        Arrays.fill(events, null);
+        nextEvent = 0;
+        eventCount = 0;
+        startedAt = System.currentTimeMillis();
+    }
+
+    private void append(String kind, String name, long value, String detail) {
+        events[nextEvent] = new Event(System.currentTimeMillis(), kind, name, value, detail);
+        nextEvent = (nextEvent + 1) % MAX_EVENTS;
+        eventCount = Math.min(eventCount + 1, MAX_EVENTS);
+    }
+
+    // ========== EXPORT ==========
+
+    /**
+     * Everything recorded since the last reset, events oldest first.
+     */
+    public synchronized JSONObject toJson() {
+        try {
+            JSONObject json = new JSONObject();
+            json.put("generatedAt", System.currentTimeMillis());
+            json.put("since", startedAt);
+            json.put("uptimeMs", SystemClock.elapsedRealtime());
+            json.put("device", Build.MANUFACTURER + " " + Build.MODEL);
+            json.put("sdk", Build.VERSION.SDK_INT);
+            json.put("counters", new JSONObject(counters));
+            json.put("gauges", new JSONObject(gauges));
+
+            JSONObject histogramsJson = new JSONObject();
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                histogramsJson.put(entry.getKey(), entry.getValue().toJson());
+            }
+            json.put("histograms", histogramsJson);
+
+            JSONArray eventsJson = new JSONArray();
+            for (int i = 0; i < eventCount; i++) {
+                Event event = events[(nextEvent - eventCount + i + MAX_EVENTS) % MAX_EVENTS];
+                JSONObject eventJson = new JSONObject();
+                eventJson.put("at", event.at);
+                eventJson.put("kind", event.kind);
+                eventJson.put("name", event.name);
+                if (event.detail != null) {
+                    eventJson.put("detail", event.detail);
+                } else {
+                    eventJson.put("value", event.value);
+                }
+                eventsJson.put(eventJson);
+            }
+            json.put("events", eventsJson);
+            return json;
+        } catch (JSONException e) {
+            // Only thrown for non-finite doubles, which are never recorded
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Plain-text report for the diagnostics screen, newest events first.
+     */
+    public synchronized String toText(int maxEvents) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "%-22s %6s %9s %9s %9s%n", "latency (ms)", "n", "p50", "p95", "max"));
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram h = entry.getValue();
+            sb.append(String.format(Locale.US, "%-22s %6d %9.1f %9.1f %9.1f%n", entry.getKey(), h.count,
+                h.percentile(0.5) / 1000.0, h.percentile(0.95) / 1000.0, h.max / 1000.0));
+        }
+
+        sb.append('\n');
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            sb.append(String.format(Locale.US, "%-22s %d%n", entry.getKey(), entry.getValue()));
+        }
+        for (Map.Entry<String, Long> entry : gauges.entrySet()) {
+            sb.append(String.format(Locale.US, "%-22s %d (now)%n", entry.getKey(), entry.getValue()));
+        }
+
+        sb.append('\n');
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss.SSS", Locale.US);
+        for (int i = 0; i < Math.min(maxEvents, eventCount); i++) {
+            Event event = events[(nextEvent - 1 - i + MAX_EVENTS) % MAX_EVENTS];
+            sb.append(time.format(new Date(event.at))).append(' ').append(event.name).append(' ');
+            if (event.detail != null) {
+                sb.append(event.detail);
+            } else if (KIND_TIMING.equals(event.kind)) {
+                sb.append(String.format(Locale.US, "%.1f ms", event.value / 1000.0));
+            } else if (KIND_COUNT.equals(event.kind)) {
+                sb.append('+').append(event.value);
+            } else {
+                sb.append('=').append(event.value);
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Log2 latency histogram in microseconds; fixed size however many samples it sees.
+     */
+    private static class Histogram {
+        final long[] buckets = new long[BUCKETS];
+        long count;
+        long sum;
+        long max;
+
+        void add(long micros) {
+            int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+            buckets[bucket]++;
+            count++;
+            sum += micros;
+            max = Math.max(max, micros);
+        }
+
+        /**
+         * Upper bound of the bucket holding the given quantile, capped at the max seen.
+         */
+        long percentile(double quantile) {
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(1L << i, max);
+                }
+            }
+            return max;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("count", count);
+            json.put("sumUs", sum);
+            json.put("maxUs", max);
+            json.put("p50Us", percentile(0.5));
+            json.put("p95Us", percentile(0.95));
+            // Keyed by each bucket's exclusive upper bound
+            JSONObject bucketsJson = new JSONObject();
+            for (int i = 0; i < BUCKETS; i++) {
+                if (buckets[i] > 0) {
+                    bucketsJson.put(i == BUCKETS - 1 ? "inf" : "<" + (1L << i), buckets[i]);
+                }
+            }
+            json.put("bucketsUs", bucketsJson);
+            return json;
+        }
+    }
+
+    private static class Event {
+        final long at;
+        final String kind;
+        final String name;
+        final long value;
+        final String detail;
+
+        Event(long at, String kind, String name, long value, String detail) {
+            this.at = at;
+            this.kind = kind;
+            this.name = name;
+            this.value = value;
+            this.detail = detail;
+        }
+    }
+}
@@ -5,9 +5,12 @@ import android.content.Context;
 import android.content.Intent;
 import android.util.Log;
 
+import com.studenthub.reminder.ReminderScheduler;
+
 /**
- * Broadcast receiver for device boot.
- * Re-schedules reminders after device restart.
+ * Broadcast receiver for device boot, app updates and clock changes.
+ * Re-schedules reminders, since alarms do not survive a restart and class
+ * times are wall-clock times.
  */
 public class BootReceiver extends BroadcastReceiver {
 
@@ -15,10 +18,13 @@ public class BootReceiver extends BroadcastReceiver {
 
     @Override
     public void onReceive(Context context, Intent intent) {
-        if (Intent.ACTION_BOOT_COMPLETED.equals(intent.getAction())) {
-            Log.d(TAG, "Boot completed, re-scheduling reminders");
-            // TODO: Re-schedule WorkManager tasks for reminders
-            // This would reschedule any pending class/assignment reminders
+        String action = intent.getAction();
+        if (Intent.ACTION_BOOT_COMPLETED.equals(action)
+                || Intent.ACTION_MY_PACKAGE_REPLACED.equals(action)
+                || Intent.ACTION_TIME_CHANGED.equals(action)
+                || Intent.ACTION_TIMEZONE_CHANGED.equals(action)) {
+            Log.d(TAG, action + ", re-scheduling reminders");
+            ReminderScheduler.getInstance(context).reschedule();
         }
     }
 }
@@ -0,0 +1,20 @@
+package com.studenthub.receiver;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import com.studenthub.reminder.ReminderScheduler;
+
+/**
+ * Receives the reminder alarm armed by {@link ReminderScheduler}.
+ */
+public class ReminderReceiver extends BroadcastReceiver {
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        // Keep the process alive until the reminders are posted and the next alarm is armed
+        PendingResult result = goAsync();
+        ReminderScheduler.getInstance(context).onAlarm(result::finish);
+    }
+}
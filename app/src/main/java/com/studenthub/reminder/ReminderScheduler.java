@@ -0,0 +1,349 @@
+package com.studenthub.reminder;
+
+import android.Manifest;
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.studenthub.R;
+import com.studenthub.StudentHubApp;
+import com.studenthub.data.local.dao.AssignmentDao;
+import com.studenthub.data.local.dao.ClassDao;
+import com.studenthub.data.local.database.AppDatabase;
+import com.studenthub.data.local.entity.AssignmentEntity;
+import com.studenthub.data.local.entity.ClassEntity;
+import com.studenthub.receiver.ReminderReceiver;
+import com.studenthub.ui.MainActivity;
+import com.studenthub.util.DateTimeUtils;
+import com.studenthub.util.PreferencesManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules class and assignment reminders with a single exact alarm.
+ *
+ * Fire times are derived from Room on demand; only the soonest one is
+ * registered with {@link AlarmManager}. When it fires, every reminder due
+ * since the last batch is posted and the alarm is re-armed for the next one.
+ * Edits only re-arm when they move the soonest reminder, so no polling
+ * worker is needed.
+ */
+public class ReminderScheduler {
+
+    private static final String TAG = "ReminderScheduler";
+
+    private static final int ALARM_REQUEST_CODE = 3001;
+
+    // Weekly classes repeat, so a week plus a day always holds the next reminder
+    private static final int HORIZON_DAYS = 8;
+    private static final int MAX_UPCOMING = 16;
+
+    private static final long DUE_TOMORROW_LEAD_MS = TimeUnit.HOURS.toMillis(24);
+    private static final long DUE_HOUR_LEAD_MS = TimeUnit.HOURS.toMillis(1);
+
+    // Reminders missed by more than this (device off, alarm deferred) are dropped
+    private static final long STALE_MS = TimeUnit.MINUTES.toMillis(15);
+
+    private static ReminderScheduler instance;
+
+    private final Context context;
+    private final ClassDao classDao;
+    private final AssignmentDao assignmentDao;
+    private final PreferencesManager prefs;
+    private final AlarmManager alarmManager;
+
+    // Serializes rescheduling so the armed alarm and its prefs always agree
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    /**
+     * One upcoming notification.
+     */
+    static class Reminder {
+        static final int TYPE_CLASS = 0;
+        static final int TYPE_DUE_TOMORROW = 1;
+        static final int TYPE_DUE_HOUR = 2;
+
+        final int type;
+        final String sourceId;
+        final long fireAt;
+        final Object source;
+
+        Reminder(int type, String sourceId, long fireAt, Object source) {
+            this.type = type;
+            this.sourceId = sourceId;
+            this.fireAt = fireAt;
+            this.source = source;
+        }
+    }
+
+    private ReminderScheduler(Context context) {
+        this.context = context;
+        AppDatabase db = AppDatabase.getInstance(context);
+        classDao = db.classDao();
+        assignmentDao = db.assignmentDao();
+        prefs = PreferencesManager.getInstance();
+        alarmManager = context.getSystemService(AlarmManager.class);
+    }
+
+    public static synchronized ReminderScheduler getInstance(Context context) {
+        if (instance == null) {
+            instance = new ReminderScheduler(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // ========== SCHEDULING ==========
+
+    /**
+     * Recompute the soonest reminder from scratch and arm it. Used on boot,
+     * after sync, and when reminder settings change.
+     */
+    public void reschedule() {
+        executor.execute(this::armNext);
+    }
+
+    /**
+     * A class was saved or deleted.
+     */
+    public void onClassChanged(String classId) {
+        executor.execute(() -> {
+            ClassEntity c = classDao.getById(classId);
+            List<Reminder> reminders = new ArrayList<>();
+            if (c != null && !c.isDeleted()) {
+                long now = System.currentTimeMillis();
+                LocalDate today = LocalDate.now();
+                for (int i = 0; i < HORIZON_DAYS; i++) {
+                    LocalDate date = today.plusDays(i);
+                    if (c.occursOnDay(calendarDayOfWeek(date))) {
+                        addClassReminder(reminders, c, date, now);
+                    }
+                }
+            }
+            onSourceChanged(classId, reminders);
+        });
+    }
+
+    /**
+     * An assignment was saved, completed or deleted.
+     */
+    public void onAssignmentChanged(String assignmentId) {
+        executor.execute(() -> {
+            AssignmentEntity a = assignmentDao.getById(assignmentId);
+            List<Reminder> reminders = new ArrayList<>();
+            if (a != null && !a.isDeleted() && !a.isCompleted()) {
+                addAssignmentReminders(reminders, a, System.currentTimeMillis());
+            }
+            onSourceChanged(assignmentId, reminders);
+        });
+    }
+
+    /**
+     * Re-arm only if the change touches the armed reminder or beats it.
+     * Anything later is picked up when the armed alarm fires.
+     */
+    private void onSourceChanged(String sourceId, List<Reminder> reminders) {
+        long armedAt = prefs.getArmedReminderTime();
+        if (sourceId.equals(prefs.getArmedReminderSource()) || armedAt == 0) {
+            armNext();
+            return;
+        }
+        for (Reminder r : reminders) {
+            if (r.fireAt < armedAt) {
+                arm(r);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Cancel the alarm and forget its state, e.g. on logout.
+     */
+    public void cancelAll() {
+        executor.execute(() -> {
+            alarmManager.cancel(alarmIntent());
+            prefs.setArmedReminder(0, null);
+        });
+    }
+
+    /**
+     * Handle the armed alarm: post everything now due, then arm the next.
+     * Runs {@code onDone} when finished so a receiver can release its wakeup.
+     */
+    public void onAlarm(Runnable onDone) {
+        executor.execute(() -> {
+            try {
+                long now = System.currentTimeMillis();
+                long from = Math.max(prefs.getReminderWatermark(), now - STALE_MS);
+                for (Reminder r : collect(from, now, Integer.MAX_VALUE)) {
+                    post(r);
+                }
+                prefs.setReminderWatermark(now);
+                armNext();
+            } finally {
+                onDone.run();
+            }
+        });
+    }
+
+    private void armNext() {
+        long now = System.currentTimeMillis();
+        List<Reminder> upcoming = collect(now, now + TimeUnit.DAYS.toMillis(HORIZON_DAYS), MAX_UPCOMING);
+        if (upcoming.isEmpty()) {
+            alarmManager.cancel(alarmIntent());
+            prefs.setArmedReminder(0, null);
+        } else {
+            arm(upcoming.get(0));
+        }
+    }
+
+    private void arm(Reminder reminder) {
+        PendingIntent intent = alarmIntent();
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.S || alarmManager.canScheduleExactAlarms()) {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, reminder.fireAt, intent);
+        } else {
+            // Exact alarm access revoked; fall back to a batched alarm
+            alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, reminder.fireAt, intent);
+        }
+        prefs.setArmedReminder(reminder.fireAt, reminder.sourceId);
+        Log.d(TAG, "Next reminder at " + DateTimeUtils.formatDateTime(reminder.fireAt));
+    }
+
+    private PendingIntent alarmIntent() {
+        Intent intent = new Intent(context, ReminderReceiver.class);
+        return PendingIntent.getBroadcast(context, ALARM_REQUEST_CODE, intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    // ========== FIRE TIMES ==========
+
+    /**
+     * Reminders firing in (from, to], soonest first, at most {@code limit}.
+     */
+    private List<Reminder> collect(long from, long to, int limit) {
+        String userId = getUserId();
+        if (userId == null) return Collections.emptyList();
+
+        List<Reminder> reminders = new ArrayList<>();
+
+        LocalDate today = LocalDate.now();
+        int days = (int) TimeUnit.MILLISECONDS.toDays(to - from) + 2;
+        for (int i = -1; i < days; i++) {
+            LocalDate date = today.plusDays(i);
+            for (ClassEntity c : classDao.getClassesForDay(userId, calendarDayOfWeek(date))) {
+                addClassReminder(reminders, c, date, from);
+            }
+        }
+
+        long lead = Math.max(DUE_TOMORROW_LEAD_MS, DUE_HOUR_LEAD_MS);
+        for (AssignmentEntity a : assignmentDao.getAssignmentsDueBetween(userId, from, to + lead)) {
+            addAssignmentReminders(reminders, a, from);
+        }
+
+        List<Reminder> due = new ArrayList<>();
+        for (Reminder r : reminders) {
+            if (r.fireAt <= to) due.add(r);
+        }
+        due.sort(Comparator.comparingLong(r -> r.fireAt));
+        return due.size() > limit ? due.subList(0, limit) : due;
+    }
+
+    private void addClassReminder(List<Reminder> out, ClassEntity c, LocalDate date, long after) {
+        // Wall-clock start time, so a DST switch earlier that day does not shift it
+        long start = date.atTime(LocalTime.ofSecondOfDay(c.getStartTime() * 60L))
+            .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long fireAt = start - TimeUnit.MINUTES.toMillis(prefs.getClassReminderMinutes());
+        if (fireAt > after) {
+            out.add(new Reminder(Reminder.TYPE_CLASS, c.getId(), fireAt, c));
+        }
+    }
+
+    private void addAssignmentReminders(List<Reminder> out, AssignmentEntity a, long after) {
+        // Never repeat a reminder already posted for this assignment
+        after = Math.max(after, a.getLastReminderSent());
+        long dayBefore = a.getDueDate() - DUE_TOMORROW_LEAD_MS;
+        if (prefs.isDueTomorrowReminderEnabled() && dayBefore > after) {
+            out.add(new Reminder(Reminder.TYPE_DUE_TOMORROW, a.getId(), dayBefore, a));
+        }
+        long hourBefore = a.getDueDate() - DUE_HOUR_LEAD_MS;
+        if (prefs.isDueHourReminderEnabled() && hourBefore > after) {
+            out.add(new Reminder(Reminder.TYPE_DUE_HOUR, a.getId(), hourBefore, a));
+        }
+    }
+
+    /**
+     * Calendar.SUNDAY = 1 ... Calendar.SATURDAY = 7, as stored in class meetings.
+     */
+    private static int calendarDayOfWeek(LocalDate date) {
+        return date.getDayOfWeek().getValue() % 7 + 1;
+    }
+
+    // ========== NOTIFICATIONS ==========
+
+    private void post(Reminder reminder) {
+        if (prefs.isQuietHoursEnabled() && DateTimeUtils.isWithinQuietHours(
+                prefs.getQuietHoursStart(), prefs.getQuietHoursEnd())) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
+                    != PackageManager.PERMISSION_GRANTED) {
+            return;
+        }
+
+        String channel;
+        String title;
+        String text;
+        if (reminder.type == Reminder.TYPE_CLASS) {
+            ClassEntity c = (ClassEntity) reminder.source;
+            channel = StudentHubApp.CHANNEL_CLASSES;
+            title = context.getString(R.string.reminder_class_title, c.getName());
+            text = context.getString(R.string.reminder_class_text,
+                c.getFormattedStartTime(), c.getLocation() != null ? c.getLocation() : "");
+        } else {
+            AssignmentEntity a = (AssignmentEntity) reminder.source;
+            channel = StudentHubApp.CHANNEL_ASSIGNMENTS;
+            title = context.getString(reminder.type == Reminder.TYPE_DUE_HOUR
+                ? R.string.reminder_due_hour_title : R.string.reminder_due_tomorrow_title, a.getTitle());
+            text = a.getFormattedDueDate();
+            assignmentDao.setLastReminderSent(a.getId(), System.currentTimeMillis());
+        }
+
+        Intent open = new Intent(context, MainActivity.class);
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0, open, PendingIntent.FLAG_IMMUTABLE);
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, channel)
+            .setSmallIcon(R.drawable.ic_notification)
+            .setContentTitle(title)
+            .setContentText(text)
+            .setContentIntent(contentIntent)
+            .setAutoCancel(true)
+            .setPriority(NotificationCompat.PRIORITY_HIGH);
+
+        int id = (reminder.sourceId + ":" + reminder.type).hashCode();
+        NotificationManagerCompat.from(context).notify(id, builder.build());
+    }
+
+    private String getUserId() {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        return user != null ? user.getUid() : null;
+    }
+}
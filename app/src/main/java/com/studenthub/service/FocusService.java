@@ -1,39 +1,66 @@
 package com.studenthub.service;
 
+import android.app.AlarmManager;
 import android.app.Notification;
 import android.app.PendingIntent;
 import android.app.Service;
 import android.content.Intent;
 import android.os.Binder;
-import android.os.CountDownTimer;
+import android.os.Build;
+import android.os.Handler;
 import android.os.IBinder;
+import android.os.Looper;
+import android.os.SystemClock;
 
 import androidx.annotation.Nullable;
 import androidx.core.app.NotificationCompat;
 
 import com.studenthub.R;
 import com.studenthub.StudentHubApp;
+import com.studenthub.data.local.entity.FocusSessionEntity;
+import com.studenthub.data.repository.DataRepository;
 import com.studenthub.ui.MainActivity;
 import com.studenthub.util.PreferencesManager;
 
 /**
  * Foreground service for running Pomodoro focus timer.
  * Handles focus sessions and breaks with notifications.
+ *
+ * A session is a deadline on {@link SystemClock#elapsedRealtime()}, so pausing
+ * and deep sleep never cause drift. The session end is a single alarm; the
+ * ongoing notification counts down with its own chronometer and is only
+ * rebuilt on state changes. Per-second ticks run only while a listener is
+ * attached, i.e. while the timer is on screen.
+ *
+ * Every session is recorded in Room. The long-break cycle is counted from
+ * that history, so it survives process death.
  */
 public class FocusService extends Service {
 
     private static final int NOTIFICATION_ID = 1001;
+    private static final int ALARM_REQUEST_CODE = 1003;
+
+    private static final String ACTION_SESSION_END = "com.studenthub.ACTION_FOCUS_SESSION_END";
+
+    private static final long TICK_MS = 1000;
 
     private final IBinder binder = new FocusBinder();
     private FocusServiceListener listener;
 
-    private CountDownTimer timer;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable tick = this::tick;
+    private AlarmManager alarmManager;
+    private DataRepository repository;
+
     private boolean isRunning = false;
     private boolean isPaused = false;
-    private boolean isBreakTime = false;
-    private long timeRemaining = 0;
+    private int sessionType = FocusSessionEntity.TYPE_FOCUS;
+    private long sessionStartedAt = 0;
+    private String linkedTaskId;
+    private long deadline = 0;          // elapsedRealtime when the session ends; valid while not paused
+    private long pausedRemaining = 0;   // time left when paused
     private long totalTime = 0;
-    private int completedSessions = 0;
+    private int focusSinceLongBreak = 0;
 
     public class FocusBinder extends Binder {
         public FocusService getService() {
@@ -47,6 +74,23 @@ public class FocusService extends Service {
         void onTimerStopped();
     }
 
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        alarmManager = getSystemService(AlarmManager.class);
+        repository = DataRepository.getInstance(this);
+        repository.getFocusCountSinceLongBreak(new DataRepository.OnDataCallback<Integer>() {
+            @Override
+            public void onSuccess(Integer count) {
+                handler.post(() -> focusSinceLongBreak = count);
+            }
+
+            @Override
+            public void onError(Exception e) {
+            }
+        });
+    }
+
     @Nullable
     @Override
     public IBinder onBind(Intent intent) {
@@ -55,134 +99,228 @@ public class FocusService extends Service {
 
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
+        if (intent != null && ACTION_SESSION_END.equals(intent.getAction())
+                && isRunning && !isPaused && getTimeRemaining() == 0) {
+            onSessionFinished(true);
+        }
         return START_NOT_STICKY;
     }
 
+    /**
+     * Attach the on-screen listener, or detach it with null to stop ticking.
+     */
     public void setListener(FocusServiceListener listener) {
         this.listener = listener;
+        handler.removeCallbacks(tick);
+        if (listener != null && isRunning && !isPaused) {
+            tick();
+        }
+    }
+
+    /**
+     * Link focus sessions started from now on to a task, or unlink with null.
+     */
+    public void setLinkedTask(@Nullable String taskId) {
+        linkedTaskId = taskId;
     }
 
     public void start() {
         if (isRunning) return;
 
+        // Started as well as bound, so the session outlives the focus screen
+        startService(new Intent(this, FocusService.class));
+        beginSession();
+    }
+
+    private void beginSession() {
         PreferencesManager prefs = PreferencesManager.getInstance();
-        int minutes = isBreakTime ? prefs.getBreakDuration() : prefs.getFocusDuration();
+        int minutes;
+        switch (sessionType) {
+            case FocusSessionEntity.TYPE_SHORT_BREAK:
+                minutes = prefs.getBreakDuration();
+                break;
+            case FocusSessionEntity.TYPE_LONG_BREAK:
+                minutes = prefs.getLongBreakDuration();
+                break;
+            default:
+                minutes = prefs.getFocusDuration();
+        }
         totalTime = minutes * 60 * 1000L;
-        timeRemaining = totalTime;
+        sessionStartedAt = System.currentTimeMillis();
 
-        startTimer();
+        isRunning = true;
+        isPaused = false;
+        deadline = SystemClock.elapsedRealtime() + totalTime;
+        armSessionEnd();
         startForeground(NOTIFICATION_ID, buildNotification());
+        setListener(listener);
     }
 
     public void pause() {
         if (!isRunning || isPaused) return;
-        
+
+        pausedRemaining = getTimeRemaining();
         isPaused = true;
-        if (timer != null) {
-            timer.cancel();
-        }
+        cancelSessionEnd();
+        handler.removeCallbacks(tick);
         updateNotification();
     }
 
     public void resume() {
         if (!isRunning || !isPaused) return;
-        
+
         isPaused = false;
-        startTimer();
+        deadline = SystemClock.elapsedRealtime() + pausedRemaining;
+        armSessionEnd();
         updateNotification();
+        setListener(listener);
     }
 
     public void stop() {
+        if (isRunning) {
+            recordSession(false);
+            if (sessionType == FocusSessionEntity.TYPE_LONG_BREAK) {
+                focusSinceLongBreak = 0;
+            }
+        }
         isRunning = false;
         isPaused = false;
-        isBreakTime = false;
-        completedSessions = 0;
-        
-        if (timer != null) {
-            timer.cancel();
-        }
-        
+        sessionType = FocusSessionEntity.TYPE_FOCUS;
+
+        cancelSessionEnd();
+        handler.removeCallbacks(tick);
+
         if (listener != null) {
             listener.onTimerStopped();
         }
-        
+
         stopForeground(true);
         stopSelf();
     }
 
     public void skip() {
         if (!isRunning) return;
-        
-        if (timer != null) {
-            timer.cancel();
-        }
-        
-        onSessionFinished();
+
+        onSessionFinished(false);
     }
 
-    private void startTimer() {
-        isRunning = true;
-        isPaused = false;
+    /**
+     * Time left in the current session, exact at any moment.
+     */
+    public long getTimeRemaining() {
+        if (!isRunning) return 0;
+        if (isPaused) return pausedRemaining;
+        return Math.max(0, deadline - SystemClock.elapsedRealtime());
+    }
 
-        timer = new CountDownTimer(timeRemaining, 1000) {
-            @Override
-            public void onTick(long millisUntilFinished) {
-                timeRemaining = millisUntilFinished;
-                int progress = (int) ((millisUntilFinished * 100) / totalTime);
-                
-                if (listener != null) {
-                    listener.onTimerTick(millisUntilFinished, progress);
-                }
-                
-                updateNotification();
-            }
+    /**
+     * Report the remaining time on each whole second of the countdown.
+     */
+    private void tick() {
+        long remaining = getTimeRemaining();
+        if (remaining == 0) {
+            // Don't wait for the alarm when the user is watching
+            onSessionFinished(true);
+            return;
+        }
 
-            @Override
-            public void onFinish() {
-                onSessionFinished();
-            }
-        }.start();
+        if (listener != null) {
+            int progress = (int) ((remaining * 100) / totalTime);
+            listener.onTimerTick(remaining, progress);
+        }
+
+        long untilNextSecond = remaining % TICK_MS;
+        handler.postDelayed(tick, untilNextSecond == 0 ? TICK_MS : untilNextSecond);
     }
 
-    private void onSessionFinished() {
-        boolean wasBreak = isBreakTime;
-        
-        if (!isBreakTime) {
-            completedSessions++;
+    private void onSessionFinished(boolean completed) {
+        cancelSessionEnd();
+        handler.removeCallbacks(tick);
+        recordSession(completed);
+
+        boolean wasBreak = isBreakTime();
+        if (sessionType == FocusSessionEntity.TYPE_LONG_BREAK) {
+            focusSinceLongBreak = 0;
+        } else if (!wasBreak && completed) {
+            focusSinceLongBreak++;
         }
-        
-        isBreakTime = !isBreakTime;
-        
+        sessionType = nextSessionType();
+
         if (listener != null) {
             listener.onSessionComplete(wasBreak);
         }
 
         // Show completion notification
         showCompletionNotification(wasBreak);
-        
+
         // Auto-start next session
-        start();
+        beginSession();
+    }
+
+    /**
+     * Breaks follow focus; every Nth completed focus earns a long break.
+     */
+    private int nextSessionType() {
+        if (isBreakTime()) return FocusSessionEntity.TYPE_FOCUS;
+        int cycle = Math.max(1, PreferencesManager.getInstance().getSessionsUntilLongBreak());
+        return focusSinceLongBreak >= cycle
+                ? FocusSessionEntity.TYPE_LONG_BREAK : FocusSessionEntity.TYPE_SHORT_BREAK;
+    }
+
+    private void recordSession(boolean completed) {
+        long ran = completed ? totalTime : totalTime - getTimeRemaining();
+        repository.recordFocusSession(sessionType, sessionStartedAt, System.currentTimeMillis(),
+                ran, completed, isBreakTime() ? null : linkedTaskId);
     }
 
+    // ========== SESSION END ALARM ==========
+
+    private void armSessionEnd() {
+        PendingIntent intent = sessionEndIntent();
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.S || alarmManager.canScheduleExactAlarms()) {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP, deadline, intent);
+        } else {
+            alarmManager.setAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP, deadline, intent);
+        }
+    }
+
+    private void cancelSessionEnd() {
+        alarmManager.cancel(sessionEndIntent());
+    }
+
+    private PendingIntent sessionEndIntent() {
+        Intent intent = new Intent(this, FocusService.class).setAction(ACTION_SESSION_END);
+        return PendingIntent.getService(this, ALARM_REQUEST_CODE, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    // ========== NOTIFICATIONS ==========
+
     private Notification buildNotification() {
         Intent notificationIntent = new Intent(this, MainActivity.class);
         PendingIntent pendingIntent = PendingIntent.getActivity(
                 this, 0, notificationIntent, PendingIntent.FLAG_IMMUTABLE);
 
-        String title = isBreakTime ? getString(R.string.break_session) : getString(R.string.focus_session);
-        String content = formatTime(timeRemaining);
-        if (isPaused) {
-            content += " (Paused)";
-        }
+        String title = isBreakTime() ? getString(R.string.break_session) : getString(R.string.focus_session);
 
-        return new NotificationCompat.Builder(this, StudentHubApp.CHANNEL_FOCUS)
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(this, StudentHubApp.CHANNEL_FOCUS)
                 .setContentTitle(title)
-                .setContentText(content)
                 .setSmallIcon(R.drawable.ic_focus)
                 .setContentIntent(pendingIntent)
                 .setOngoing(true)
-                .setSilent(true)
-                .build();
+                .setSilent(true);
+
+        if (isPaused) {
+            builder.setContentText(formatTime(pausedRemaining) + " (Paused)");
+        } else {
+            // The system counts down to the wall-clock end time; no per-second updates
+            long endsAt = System.currentTimeMillis() + getTimeRemaining();
+            builder.setWhen(endsAt)
+                    .setShowWhen(true)
+                    .setUsesChronometer(true)
+                    .setChronometerCountDown(true);
+        }
+        return builder.build();
     }
 
     private void updateNotification() {
@@ -226,18 +364,17 @@ public class FocusService extends Service {
     }
 
     public boolean isBreakTime() {
-        return isBreakTime;
+        return sessionType != FocusSessionEntity.TYPE_FOCUS;
     }
 
-    public int getCompletedSessions() {
-        return completedSessions;
+    public boolean isLongBreak() {
+        return sessionType == FocusSessionEntity.TYPE_LONG_BREAK;
     }
 
     @Override
     public void onDestroy() {
-        if (timer != null) {
-            timer.cancel();
-        }
+        cancelSessionEnd();
+        handler.removeCallbacks(tick);
         super.onDestroy();
     }
 }
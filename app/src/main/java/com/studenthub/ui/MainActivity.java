@@ -12,6 +12,7 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.studenthub.R;
 import com.studenthub.data.repository.DataRepository;
+import com.studenthub.reminder.ReminderScheduler;
 import com.studenthub.ui.assignments.AssignmentsFragment;
 import com.studenthub.ui.auth.LoginActivity;
 import com.studenthub.ui.focus.FocusFragment;
@@ -19,6 +20,8 @@ import com.studenthub.ui.home.HomeFragment;
 import com.studenthub.ui.schedule.ScheduleFragment;
 import com.studenthub.ui.settings.SettingsFragment;
 import com.studenthub.util.NetworkUtils;
+import com.studenthub.worker.MaintenanceWorker;
+import com.studenthub.worker.SyncWorker;
 
 /**
  * Main activity containing bottom navigation and fragment container.
@@ -54,8 +57,11 @@ public class MainActivity extends AppCompatActivity {
             loadFragment(new HomeFragment());
         }
 
-        // Trigger sync on app start
+        // Refresh in the background on app start and keep periodic jobs scheduled
         triggerSync();
+        SyncWorker.schedulePeriodic(this);
+        MaintenanceWorker.schedule(this);
+        ReminderScheduler.getInstance(this).reschedule();
     }
 
     private void initViews() {
@@ -106,18 +112,12 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Hand sync to WorkManager so it never runs on the startup path.
+     * Requests made while one is already pending coalesce into it.
+     */
     private void triggerSync() {
-        DataRepository.getInstance(this).sync(new DataRepository.OnSyncCallback() {
-            @Override
-            public void onSuccess() {
-                // Sync completed silently
-            }
-
-            @Override
-            public void onError(Exception e) {
-                // Handle sync error silently, will retry later
-            }
-        });
+        SyncWorker.requestSync(this);
     }
 
     private void navigateToLogin() {
@@ -133,7 +133,11 @@ public class MainActivity extends AppCompatActivity {
         // Verify user is still logged in
         if (auth.getCurrentUser() == null) {
             navigateToLogin();
+            return;
         }
+        
+        // The app may have come to the foreground before the user signed in
+        DataRepository.getInstance(this).startLiveSync();
     }
 
     /**
@@ -8,38 +8,54 @@ import android.widget.CheckBox;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.studenthub.R;
 import com.studenthub.data.local.entity.AssignmentEntity;
+import com.studenthub.data.local.model.AssignmentRow;
 import com.studenthub.util.DateTimeUtils;
 
-import java.util.List;
-
 /**
- * Adapter for assignment list with section headers.
+ * Paged adapter for the assignment list. Items are assignments plus String
+ * section headers inserted as paging separators.
  */
-public class AssignmentAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+public class AssignmentAdapter extends PagingDataAdapter<Object, RecyclerView.ViewHolder> {
 
     private static final int TYPE_HEADER = 0;
     private static final int TYPE_ASSIGNMENT = 1;
 
-    private final List<Object> items;
+    private static final DiffUtil.ItemCallback<Object> DIFF_CALLBACK = new DiffUtil.ItemCallback<Object>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Object oldItem, @NonNull Object newItem) {
+            if (oldItem instanceof AssignmentRow && newItem instanceof AssignmentRow) {
+                return ((AssignmentRow) oldItem).id.equals(((AssignmentRow) newItem).id);
+            }
+            return oldItem.equals(newItem);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Object oldItem, @NonNull Object newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
     private final OnAssignmentListener listener;
 
     public interface OnAssignmentListener {
-        void onAssignmentClick(AssignmentEntity assignment);
-        void onCompletedChanged(AssignmentEntity assignment, boolean completed);
+        void onAssignmentClick(AssignmentRow assignment);
+        void onCompletedChanged(AssignmentRow assignment, boolean completed);
     }
 
-    public AssignmentAdapter(List<Object> items, OnAssignmentListener listener) {
-        this.items = items;
+    public AssignmentAdapter(OnAssignmentListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
     }
 
     @Override
     public int getItemViewType(int position) {
-        return items.get(position) instanceof String ? TYPE_HEADER : TYPE_ASSIGNMENT;
+        return getItem(position) instanceof String ? TYPE_HEADER : TYPE_ASSIGNMENT;
     }
 
     @NonNull
@@ -58,18 +74,16 @@ public class AssignmentAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        Object item = getItem(position);
+        if (item == null) return;
+
         if (holder instanceof HeaderViewHolder) {
-            ((HeaderViewHolder) holder).bind((String) items.get(position));
+            ((HeaderViewHolder) holder).bind((String) item);
         } else {
-            ((AssignmentViewHolder) holder).bind((AssignmentEntity) items.get(position), listener);
+            ((AssignmentViewHolder) holder).bind((AssignmentRow) item, listener);
         }
     }
 
-    @Override
-    public int getItemCount() {
-        return items.size();
-    }
-
     static class HeaderViewHolder extends RecyclerView.ViewHolder {
         private final TextView sectionTitle;
 
@@ -97,14 +111,16 @@ public class AssignmentAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             checkbox = itemView.findViewById(R.id.checkbox);
         }
 
-        void bind(AssignmentEntity assignment, OnAssignmentListener listener) {
-            title.setText(assignment.getTitle());
-            course.setText(assignment.getCourse());
-            dueDate.setText(DateTimeUtils.getRelativeTimeString(assignment.getDueDate()));
-            checkbox.setChecked(assignment.isCompleted());
+        void bind(AssignmentRow assignment, OnAssignmentListener listener) {
+            title.setText(assignment.title);
+            course.setText(assignment.course);
+            dueDate.setText(DateTimeUtils.getRelativeTimeString(assignment.dueDate));
+            // Detach before setChecked so a recycled holder doesn't report a toggle
+            checkbox.setOnCheckedChangeListener(null);
+            checkbox.setChecked(assignment.completed);
 
             // Strikethrough if completed
-            if (assignment.isCompleted()) {
+            if (assignment.completed) {
                 title.setPaintFlags(title.getPaintFlags() | Paint.STRIKE_THRU_TEXT_FLAG);
                 title.setAlpha(0.6f);
             } else {
@@ -114,7 +130,7 @@ public class AssignmentAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
 
             // Priority color
             int colorRes;
-            switch (assignment.getPriority()) {
+            switch (assignment.priority) {
                 case AssignmentEntity.PRIORITY_HIGH:
                     colorRes = R.color.priority_high;
                     break;
@@ -0,0 +1,83 @@
+package com.studenthub.ui.assignments;
+
+import android.util.SparseArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.StringRes;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
+
+import com.studenthub.R;
+import com.studenthub.data.local.model.AssignmentRow;
+
+import java.util.Calendar;
+import java.util.concurrent.Executor;
+
+/**
+ * Sorts assignments into due-date sections for the assignments list.
+ *
+ * Day boundaries are computed once per pass, so classifying a row is a few
+ * long comparisons with no per-row allocation. Create a new bucketer for
+ * each list submission so the boundaries follow the clock.
+ */
+public class AssignmentBucketer {
+
+    private final long now;
+    private final long startOfTomorrow;
+    private final long startOfDayAfterTomorrow;
+    private final long endOfWeek;
+
+    public AssignmentBucketer(long now) {
+        this.now = now;
+
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(now);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        int daysUntilSunday = Calendar.SATURDAY - cal.get(Calendar.DAY_OF_WEEK) + 1;
+
+        // Calendar arithmetic keeps the boundaries right across DST changes
+        cal.add(Calendar.DAY_OF_YEAR, 1);
+        startOfTomorrow = cal.getTimeInMillis();
+        cal.add(Calendar.DAY_OF_YEAR, 1);
+        startOfDayAfterTomorrow = cal.getTimeInMillis();
+        cal.add(Calendar.DAY_OF_YEAR, daysUntilSunday - 2);
+        endOfWeek = cal.getTimeInMillis();
+    }
+
+    /**
+     * Section title resource for a row. Checks run in display order, so
+     * rows sorted by completion then due date land in contiguous sections.
+     */
+    @StringRes
+    public int sectionOf(boolean completed, long dueDate) {
+        if (completed) return R.string.completed;
+        if (dueDate < now) return R.string.overdue;
+        if (dueDate < startOfTomorrow) return R.string.due_today;
+        if (dueDate < startOfDayAfterTomorrow) return R.string.due_tomorrow;
+        if (dueDate < endOfWeek) return R.string.due_this_week;
+        return R.string.due_later;
+    }
+
+    @StringRes
+    public int sectionOf(@NonNull AssignmentRow assignment) {
+        return sectionOf(assignment.completed, assignment.dueDate);
+    }
+
+    /**
+     * Interleave section headers into a page stream. Runs on {@code executor};
+     * {@code titles} maps section resources to pre-resolved strings.
+     */
+    public PagingData<Object> withSectionHeaders(PagingData<AssignmentRow> pagingData,
+                                                 Executor executor, SparseArray<String> titles) {
+        return PagingDataTransforms.insertSeparators(pagingData, executor,
+                (AssignmentRow before, AssignmentRow after) -> {
+                    if (after == null) return null;
+                    int section = sectionOf(after);
+                    if (before != null && sectionOf(before) == section) return null;
+                    return titles.get(section);
+                });
+    }
+}
@@ -2,6 +2,7 @@ package com.studenthub.ui.assignments;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.util.SparseArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,17 +10,24 @@ import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.LiveData;
+import androidx.paging.CombinedLoadStates;
+import androidx.paging.LoadState;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.studenthub.R;
-import com.studenthub.data.local.entity.AssignmentEntity;
+import com.studenthub.data.local.model.AssignmentRow;
 import com.studenthub.data.repository.DataRepository;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import kotlin.Unit;
 
 /**
  * Fragment for displaying and managing assignments.
@@ -31,8 +39,13 @@ public class AssignmentsFragment extends Fragment {
     private MaterialButton toggleCompleted, addFirstAssignment;
     private FloatingActionButton fabAddAssignment;
 
+    // Builds section separators off the main thread
+    private static final Executor SECTION_EXECUTOR = Executors.newSingleThreadExecutor();
+
     private DataRepository repository;
     private AssignmentAdapter adapter;
+    private LiveData<PagingData<AssignmentRow>> pagedAssignments;
+    private final SparseArray<String> sectionTitles = new SparseArray<>();
     private boolean showCompleted = false;
 
     @Nullable
@@ -60,6 +73,29 @@ public class AssignmentsFragment extends Fragment {
         fabAddAssignment = view.findViewById(R.id.fab_add_assignment);
 
         assignmentsList.setLayoutManager(new LinearLayoutManager(requireContext()));
+
+        // Resolved once on the main thread; separators are built on SECTION_EXECUTOR
+        for (int res : new int[] {R.string.overdue, R.string.due_today, R.string.due_tomorrow,
+                R.string.due_this_week, R.string.due_later, R.string.completed}) {
+            sectionTitles.put(res, getString(res));
+        }
+
+        adapter = new AssignmentAdapter(new AssignmentAdapter.OnAssignmentListener() {
+            @Override
+            public void onAssignmentClick(AssignmentRow assignment) {
+                openAssignmentEditor(assignment.id);
+            }
+
+            @Override
+            public void onCompletedChanged(AssignmentRow assignment, boolean completed) {
+                repository.setAssignmentCompleted(assignment.id, completed, null);
+            }
+        });
+        adapter.addLoadStateListener(loadStates -> {
+            updateEmptyState(loadStates);
+            return Unit.INSTANCE;
+        });
+        assignmentsList.setAdapter(adapter);
     }
 
     private void setupListeners() {
@@ -74,93 +110,27 @@ public class AssignmentsFragment extends Fragment {
     }
 
     private void loadAssignments() {
-        if (showCompleted) {
-            repository.getAllAssignments().observe(getViewLifecycleOwner(), this::displayAssignments);
-        } else {
-            repository.getIncompleteAssignments().observe(getViewLifecycleOwner(), this::displayAssignments);
+        if (pagedAssignments != null) {
+            pagedAssignments.removeObservers(getViewLifecycleOwner());
         }
-    }
 
-    private void displayAssignments(List<AssignmentEntity> assignments) {
-        loadingContainer.setVisibility(View.GONE);
+        LiveData<PagingData<AssignmentRow>> source = repository.getAssignmentsPaged(showCompleted);
+        if (source == null) return;
 
-        if (assignments == null || assignments.isEmpty()) {
-            assignmentsList.setVisibility(View.GONE);
-            emptyState.setVisibility(View.VISIBLE);
-        } else {
-            assignmentsList.setVisibility(View.VISIBLE);
-            emptyState.setVisibility(View.GONE);
-
-            // Group assignments
-            List<Object> groupedItems = groupAssignments(assignments);
-            
-            adapter = new AssignmentAdapter(groupedItems, new AssignmentAdapter.OnAssignmentListener() {
-                @Override
-                public void onAssignmentClick(AssignmentEntity assignment) {
-                    openAssignmentEditor(assignment.getId());
-                }
-
-                @Override
-                public void onCompletedChanged(AssignmentEntity assignment, boolean completed) {
-                    repository.setAssignmentCompleted(assignment.getId(), completed, null);
-                }
-            });
-            assignmentsList.setAdapter(adapter);
-        }
+        pagedAssignments = PagingLiveData.cachedIn(source, getViewLifecycleOwner().getLifecycle());
+        pagedAssignments.observe(getViewLifecycleOwner(), pagingData ->
+                adapter.submitData(getViewLifecycleOwner().getLifecycle(),
+                        new AssignmentBucketer(System.currentTimeMillis())
+                                .withSectionHeaders(pagingData, SECTION_EXECUTOR, sectionTitles)));
     }
 
-    private List<Object> groupAssignments(List<AssignmentEntity> assignments) {
-        List<Object> items = new ArrayList<>();
-        
-        List<AssignmentEntity> overdue = new ArrayList<>();
-        List<AssignmentEntity> today = new ArrayList<>();
-        List<AssignmentEntity> tomorrow = new ArrayList<>();
-        List<AssignmentEntity> thisWeek = new ArrayList<>();
-        List<AssignmentEntity> later = new ArrayList<>();
-        List<AssignmentEntity> completed = new ArrayList<>();
-
-        for (AssignmentEntity a : assignments) {
-            if (a.isCompleted()) {
-                completed.add(a);
-            } else if (a.isOverdue()) {
-                overdue.add(a);
-            } else if (a.isDueToday()) {
-                today.add(a);
-            } else if (a.isDueTomorrow()) {
-                tomorrow.add(a);
-            } else if (a.isDueThisWeek()) {
-                thisWeek.add(a);
-            } else {
-                later.add(a);
-            }
-        }
+    private void updateEmptyState(CombinedLoadStates loadStates) {
+        if (loadStates.getRefresh() instanceof LoadState.Loading) return;
 
-        if (!overdue.isEmpty()) {
-            items.add(getString(R.string.overdue));
-            items.addAll(overdue);
-        }
-        if (!today.isEmpty()) {
-            items.add(getString(R.string.due_today));
-            items.addAll(today);
-        }
-        if (!tomorrow.isEmpty()) {
-            items.add(getString(R.string.due_tomorrow));
-            items.addAll(tomorrow);
-        }
-        if (!thisWeek.isEmpty()) {
-            items.add(getString(R.string.due_this_week));
-            items.addAll(thisWeek);
-        }
-        if (!later.isEmpty()) {
-            items.add(getString(R.string.due_later));
-            items.addAll(later);
-        }
-        if (showCompleted && !completed.isEmpty()) {
-            items.add(getString(R.string.completed));
-            items.addAll(completed);
-        }
-
-        return items;
+        loadingContainer.setVisibility(View.GONE);
+        boolean empty = adapter.getItemCount() == 0;
+        assignmentsList.setVisibility(empty ? View.GONE : View.VISIBLE);
+        emptyState.setVisibility(empty ? View.VISIBLE : View.GONE);
     }
 
     private void openAssignmentEditor(@Nullable String assignmentId) {
@@ -170,10 +140,4 @@ public class AssignmentsFragment extends Fragment {
         }
         startActivity(intent);
     }
-
-    @Override
-    public void onResume() {
-        super.onResume();
-        loadAssignments();
-    }
 }
@@ -15,11 +15,14 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.LiveData;
 
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.progressindicator.CircularProgressIndicator;
 import com.studenthub.R;
+import com.studenthub.data.local.model.FocusStats;
+import com.studenthub.data.repository.DataRepository;
 import com.studenthub.service.FocusService;
 import com.studenthub.util.DateTimeUtils;
 import com.studenthub.util.PreferencesManager;
@@ -29,7 +32,7 @@ import com.studenthub.util.PreferencesManager;
  */
 public class FocusFragment extends Fragment implements FocusService.FocusServiceListener {
 
-    private TextView sessionTypeBadge, timerText, timerLabel, sessionsCount;
+    private TextView sessionTypeBadge, timerText, timerLabel, sessionsCount, statsText;
     private CircularProgressIndicator timerProgress;
     private MaterialButton playPauseButton, stopButton, skipButton;
     private ImageButton settingsButton;
@@ -67,6 +70,7 @@ public class FocusFragment extends Fragment implements FocusService.FocusService
         initViews(view);
         setupListeners();
         resetTimerDisplay();
+        observeStats();
     }
 
     @Override
@@ -97,6 +101,7 @@ public class FocusFragment extends Fragment implements FocusService.FocusService
         stopButton = view.findViewById(R.id.stop_button);
         skipButton = view.findViewById(R.id.skip_button);
         sessionsCount = view.findViewById(R.id.sessions_count);
+        statsText = view.findViewById(R.id.focus_stats_text);
         settingsButton = view.findViewById(R.id.focus_settings_button);
     }
 
@@ -133,6 +138,20 @@ public class FocusFragment extends Fragment implements FocusService.FocusService
         settingsButton.setOnClickListener(v -> showSettingsDialog());
     }
 
+    private void observeStats() {
+        LiveData<FocusStats> stats = DataRepository.getInstance(requireContext()).getFocusStats();
+        if (stats != null) {
+            stats.observe(getViewLifecycleOwner(), this::showStats);
+        }
+    }
+
+    private void showStats(FocusStats stats) {
+        if (stats == null) return;
+        sessionsCount.setText(String.valueOf(stats.todaySessions));
+        statsText.setText(getString(R.string.focus_stats, stats.streak,
+                (int) (stats.todayFocusMs / 60000), (int) (stats.weekFocusMs / 60000)));
+    }
+
     private void resetTimerDisplay() {
         int focusDuration = PreferencesManager.getInstance().getFocusDuration();
         timerText.setText(String.format("%02d:00", focusDuration));
@@ -141,8 +160,7 @@ public class FocusFragment extends Fragment implements FocusService.FocusService
         sessionTypeBadge.setBackgroundTintList(
                 getResources().getColorStateList(R.color.focus_active, null));
         timerLabel.setText(R.string.focus_time);
-        sessionsCount.setText("0");
-        
+
         stopButton.setVisibility(View.GONE);
         skipButton.setVisibility(View.GONE);
         playPauseButton.setIconResource(R.drawable.ic_play);
@@ -171,7 +189,8 @@ public class FocusFragment extends Fragment implements FocusService.FocusService
 
         // Update session type badge
         if (isBreak) {
-            sessionTypeBadge.setText(R.string.break_session);
+            sessionTypeBadge.setText(focusService.isLongBreak()
+                    ? R.string.long_break_session : R.string.break_session);
             sessionTypeBadge.setBackgroundTintList(
                     getResources().getColorStateList(R.color.break_active, null));
             timerLabel.setText(R.string.break_time);
@@ -184,8 +203,10 @@ public class FocusFragment extends Fragment implements FocusService.FocusService
             timerProgress.setIndicatorColor(getResources().getColor(R.color.focus_active, null));
         }
 
-        // Update sessions count
-        sessionsCount.setText(String.valueOf(focusService.getCompletedSessions()));
+        // Paused sessions don't tick, so show the remaining time directly
+        if (isRunning) {
+            timerText.setText(DateTimeUtils.formatCountdown(focusService.getTimeRemaining()));
+        }
     }
 
     @Override
@@ -6,23 +6,43 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.studenthub.R;
 import com.studenthub.data.local.entity.AssignmentEntity;
+import com.studenthub.data.local.model.AssignmentRow;
 import com.studenthub.util.DateTimeUtils;
-
-import java.util.List;
+import com.studenthub.util.StableIds;
 
 /**
  * Simple adapter for showing assignment previews on home dashboard.
  */
-public class AssignmentPreviewAdapter extends RecyclerView.Adapter<AssignmentPreviewAdapter.ViewHolder> {
+public class AssignmentPreviewAdapter extends ListAdapter<AssignmentRow, AssignmentPreviewAdapter.ViewHolder> {
+
+    private static final DiffUtil.ItemCallback<AssignmentRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<AssignmentRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull AssignmentRow oldItem, @NonNull AssignmentRow newItem) {
+            return oldItem.id.equals(newItem.id);
+        }
 
-    private final List<AssignmentEntity> assignments;
+        @Override
+        public boolean areContentsTheSame(@NonNull AssignmentRow oldItem, @NonNull AssignmentRow newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    private final StableIds stableIds = new StableIds();
 
-    public AssignmentPreviewAdapter(List<AssignmentEntity> assignments) {
-        this.assignments = assignments;
+    public AssignmentPreviewAdapter() {
+        super(DIFF_CALLBACK);
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.idFor(getItem(position).id);
     }
 
     @NonNull
@@ -35,15 +55,10 @@ public class AssignmentPreviewAdapter extends RecyclerView.Adapter<AssignmentPre
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        AssignmentEntity assignment = assignments.get(position);
+        AssignmentRow assignment = getItem(position);
         holder.bind(assignment);
     }
 
-    @Override
-    public int getItemCount() {
-        return assignments.size();
-    }
-
     static class ViewHolder extends RecyclerView.ViewHolder {
         private final View priorityIndicator;
         private final TextView title;
@@ -56,13 +71,13 @@ public class AssignmentPreviewAdapter extends RecyclerView.Adapter<AssignmentPre
             dueDate = itemView.findViewById(R.id.due_date);
         }
 
-        void bind(AssignmentEntity assignment) {
-            title.setText(assignment.getTitle());
-            dueDate.setText(DateTimeUtils.getRelativeTimeString(assignment.getDueDate()));
+        void bind(AssignmentRow assignment) {
+            title.setText(assignment.title);
+            dueDate.setText(DateTimeUtils.getRelativeTimeString(assignment.dueDate));
             
             // Set priority color
             int colorRes;
-            switch (assignment.getPriority()) {
+            switch (assignment.priority) {
                 case AssignmentEntity.PRIORITY_HIGH:
                     colorRes = R.color.priority_high;
                     break;
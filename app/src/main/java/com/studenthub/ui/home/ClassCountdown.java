@@ -0,0 +1,85 @@
+package com.studenthub.ui.home;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.studenthub.data.local.model.ClassRow;
+import com.studenthub.util.DateTimeUtils;
+
+/**
+ * Drives the next-class countdown on the home dashboard.
+ *
+ * Wakes up exactly on each minute boundary, which is also where class
+ * starts and ends fall, instead of polling. Ticks stop while the owner is
+ * stopped and resume with a fresh reading when it starts again.
+ */
+public class ClassCountdown implements DefaultLifecycleObserver {
+
+    public interface Listener {
+        /**
+         * @param minutesUntilStart minutes until the class starts; zero or
+         *                          negative while it is in progress
+         */
+        void onCountdown(ClassRow classRow, int minutesUntilStart);
+
+        /**
+         * The class has ended; supply the following one with {@link #setTarget}.
+         */
+        void onClassEnded(ClassRow classRow);
+    }
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable tick = this::tick;
+    private final Listener listener;
+
+    private ClassRow target;
+    private boolean started;
+
+    public ClassCountdown(LifecycleOwner owner, Listener listener) {
+        this.listener = listener;
+        owner.getLifecycle().addObserver(this);
+    }
+
+    /**
+     * Count down to a new class, or stop with null.
+     */
+    public void setTarget(@Nullable ClassRow classRow) {
+        handler.removeCallbacks(tick);
+        target = classRow;
+        if (started && target != null) {
+            tick();
+        }
+    }
+
+    @Override
+    public void onStart(@NonNull LifecycleOwner owner) {
+        started = true;
+        if (target != null) {
+            tick();
+        }
+    }
+
+    @Override
+    public void onStop(@NonNull LifecycleOwner owner) {
+        started = false;
+        handler.removeCallbacks(tick);
+    }
+
+    private void tick() {
+        int minute = DateTimeUtils.getCurrentMinuteOfDay();
+        if (minute >= target.endTime) {
+            ClassRow ended = target;
+            target = null;
+            listener.onClassEnded(ended);
+            return;
+        }
+
+        listener.onCountdown(target, target.startTime - minute);
+        handler.postDelayed(tick, DateTimeUtils.getMillisUntilNextMinute());
+    }
+}
@@ -2,8 +2,6 @@ package com.studenthub.ui.home;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -18,15 +16,15 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.google.android.material.card.MaterialCardView;
 import com.studenthub.R;
-import com.studenthub.data.local.entity.AssignmentEntity;
-import com.studenthub.data.local.entity.ClassEntity;
-import com.studenthub.data.local.entity.TaskEntity;
+import com.studenthub.data.local.model.AssignmentRow;
+import com.studenthub.data.local.model.ClassRow;
+import com.studenthub.data.local.model.TaskRow;
+import com.studenthub.data.repository.DashboardLiveData;
 import com.studenthub.data.repository.DataRepository;
 import com.studenthub.ui.MainActivity;
 import com.studenthub.util.DateTimeUtils;
 import com.studenthub.util.PreferencesManager;
 
-import java.util.Calendar;
 import java.util.List;
 
 /**
@@ -41,12 +39,14 @@ public class HomeFragment extends Fragment {
     private TextView nextClassName, nextClassLocation, nextClassCountdown, noClassText;
     private TextView noAssignmentsText, noTasksText, tasksCount;
     private RecyclerView assignmentsPreviewList, tasksPreviewList;
+    private AssignmentPreviewAdapter assignmentsAdapter;
+    private TaskPreviewAdapter tasksAdapter;
 
     private DataRepository repository;
-    private Handler handler;
-    private Runnable countdownRunnable;
+    private ClassCountdown countdown;
 
-    private ClassEntity nextClass;
+    private DashboardLiveData dashboard;
+    private ClassRow nextClass;
 
     @Nullable
     @Override
@@ -60,7 +60,18 @@ public class HomeFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
         
         repository = DataRepository.getInstance(requireContext());
-        handler = new Handler(Looper.getMainLooper());
+        countdown = new ClassCountdown(getViewLifecycleOwner(), new ClassCountdown.Listener() {
+            @Override
+            public void onCountdown(ClassRow classRow, int minutesUntilStart) {
+                showCountdown(minutesUntilStart);
+            }
+
+            @Override
+            public void onClassEnded(ClassRow classRow) {
+                // The refreshed snapshot carries the following class
+                dashboard.refresh();
+            }
+        });
         
         initViews(view);
         setupListeners();
@@ -85,6 +96,8 @@ public class HomeFragment extends Fragment {
         assignmentsPreviewList = view.findViewById(R.id.assignments_preview_list);
         noAssignmentsText = view.findViewById(R.id.no_assignments_text);
         assignmentsPreviewList.setLayoutManager(new LinearLayoutManager(requireContext()));
+        assignmentsAdapter = new AssignmentPreviewAdapter();
+        assignmentsPreviewList.setAdapter(assignmentsAdapter);
         
         // Focus Card
         focusCard = view.findViewById(R.id.focus_card);
@@ -95,6 +108,10 @@ public class HomeFragment extends Fragment {
         noTasksText = view.findViewById(R.id.no_tasks_text);
         tasksCount = view.findViewById(R.id.tasks_count);
         tasksPreviewList.setLayoutManager(new LinearLayoutManager(requireContext()));
+        tasksAdapter = new TaskPreviewAdapter((task, completed) -> {
+            repository.setTaskCompleted(task.id, completed, null);
+        });
+        tasksPreviewList.setAdapter(tasksAdapter);
         
         // Set greeting
         greetingText.setText(DateTimeUtils.getGreeting());
@@ -106,10 +123,7 @@ public class HomeFragment extends Fragment {
                 @Override
                 public void onSuccess() {
                     if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            swipeRefresh.setRefreshing(false);
-                            loadData();
-                        });
+                        getActivity().runOnUiThread(() -> swipeRefresh.setRefreshing(false));
                     }
                 }
 
@@ -148,46 +162,18 @@ public class HomeFragment extends Fragment {
     }
 
     private void loadData() {
-        loadNextClass();
-        loadUpcomingAssignments();
-        loadTodaysTasks();
-    }
-
-    private void loadNextClass() {
-        int today = DateTimeUtils.getCurrentDayOfWeek();
+        dashboard = repository.getDashboard();
+        if (dashboard == null) return;
         
-        repository.getClassesForDaySync(today, new DataRepository.OnDataCallback<List<ClassEntity>>() {
-            @Override
-            public void onSuccess(List<ClassEntity> classes) {
-                if (getActivity() == null) return;
-                
-                getActivity().runOnUiThread(() -> {
-                    nextClass = findNextClass(classes);
-                    updateNextClassUI();
-                });
-            }
-
-            @Override
-            public void onError(Exception e) {
-                // Handle error
-            }
+        // One emission per change renders every card in a single pass
+        dashboard.observe(getViewLifecycleOwner(), snapshot -> {
+            nextClass = snapshot.nextClass;
+            updateNextClassUI();
+            showUpcomingAssignments(snapshot.upcomingAssignments);
+            showTasks(snapshot.recentTasks, snapshot.incompleteTaskCount);
         });
     }
 
-    private ClassEntity findNextClass(List<ClassEntity> classes) {
-        if (classes == null || classes.isEmpty()) return null;
-        
-        Calendar now = Calendar.getInstance();
-        int currentMinutes = now.get(Calendar.HOUR_OF_DAY) * 60 + now.get(Calendar.MINUTE);
-        
-        for (ClassEntity c : classes) {
-            if (c.getEndTime() > currentMinutes) {
-                return c;
-            }
-        }
-        return null;
-    }
-
     private void updateNextClassUI() {
         if (nextClass != null) {
             nextClassName.setVisibility(View.VISIBLE);
@@ -195,109 +181,54 @@ public class HomeFragment extends Fragment {
             nextClassCountdown.setVisibility(View.VISIBLE);
             noClassText.setVisibility(View.GONE);
             
-            nextClassName.setText(nextClass.getName());
+            nextClassName.setText(nextClass.name);
             nextClassLocation.setText(nextClass.getLocation());
-            
-            startCountdown();
         } else {
             nextClassName.setVisibility(View.GONE);
             nextClassLocation.setVisibility(View.GONE);
             nextClassCountdown.setVisibility(View.GONE);
             noClassText.setVisibility(View.VISIBLE);
         }
+        countdown.setTarget(nextClass);
     }
 
-    private void startCountdown() {
-        if (countdownRunnable != null) {
-            handler.removeCallbacks(countdownRunnable);
-        }
-        
-        countdownRunnable = new Runnable() {
-            @Override
-            public void run() {
-                if (nextClass == null || getActivity() == null) return;
-                
-                Calendar now = Calendar.getInstance();
-                int currentMinutes = now.get(Calendar.HOUR_OF_DAY) * 60 + now.get(Calendar.MINUTE);
-                
-                if (currentMinutes >= nextClass.getStartTime() && currentMinutes < nextClass.getEndTime()) {
-                    nextClassCountdown.setText(R.string.in_progress);
-                    nextClassCountdown.setTextColor(getResources().getColor(R.color.success, null));
-                } else if (currentMinutes < nextClass.getStartTime()) {
-                    int minutesUntil = nextClass.getStartTime() - currentMinutes;
-                    if (minutesUntil < 60) {
-                        nextClassCountdown.setText(getString(R.string.starts_in, minutesUntil + " min"));
-                    } else {
-                        int hours = minutesUntil / 60;
-                        int mins = minutesUntil % 60;
-                        nextClassCountdown.setText(getString(R.string.starts_in, hours + "h " + mins + "m"));
-                    }
-                    nextClassCountdown.setTextColor(getResources().getColor(R.color.primary, null));
-                }
-                
-                handler.postDelayed(this, 60000); // Update every minute
+    private void showCountdown(int minutesUntil) {
+        if (minutesUntil <= 0) {
+            nextClassCountdown.setText(R.string.in_progress);
+            nextClassCountdown.setTextColor(getResources().getColor(R.color.success, null));
+        } else {
+            if (minutesUntil < 60) {
+                nextClassCountdown.setText(getString(R.string.starts_in, minutesUntil + " min"));
+            } else {
+                int hours = minutesUntil / 60;
+                int mins = minutesUntil % 60;
+                nextClassCountdown.setText(getString(R.string.starts_in, hours + "h " + mins + "m"));
             }
-        };
-        
-        handler.post(countdownRunnable);
+            nextClassCountdown.setTextColor(getResources().getColor(R.color.primary, null));
+        }
     }
 
-    private void loadUpcomingAssignments() {
-        repository.getUpcomingAssignments(3, new DataRepository.OnDataCallback<List<AssignmentEntity>>() {
-            @Override
-            public void onSuccess(List<AssignmentEntity> assignments) {
-                if (getActivity() == null) return;
-                
-                getActivity().runOnUiThread(() -> {
-                    if (assignments.isEmpty()) {
-                        assignmentsPreviewList.setVisibility(View.GONE);
-                        noAssignmentsText.setVisibility(View.VISIBLE);
-                    } else {
-                        assignmentsPreviewList.setVisibility(View.VISIBLE);
-                        noAssignmentsText.setVisibility(View.GONE);
-                        
-                        AssignmentPreviewAdapter adapter = new AssignmentPreviewAdapter(assignments);
-                        assignmentsPreviewList.setAdapter(adapter);
-                    }
-                });
-            }
-
-            @Override
-            public void onError(Exception e) {
-                // Handle error
-            }
-        });
+    private void showUpcomingAssignments(List<AssignmentRow> assignments) {
+        if (assignments.isEmpty()) {
+            assignmentsPreviewList.setVisibility(View.GONE);
+            noAssignmentsText.setVisibility(View.VISIBLE);
+        } else {
+            assignmentsPreviewList.setVisibility(View.VISIBLE);
+            noAssignmentsText.setVisibility(View.GONE);
+        }
+        assignmentsAdapter.submitList(assignments);
     }
 
-    private void loadTodaysTasks() {
-        repository.getRecentTasks(5, new DataRepository.OnDataCallback<List<TaskEntity>>() {
-            @Override
-            public void onSuccess(List<TaskEntity> tasks) {
-                if (getActivity() == null) return;
-                
-                getActivity().runOnUiThread(() -> {
-                    if (tasks.isEmpty()) {
-                        tasksPreviewList.setVisibility(View.GONE);
-                        noTasksText.setVisibility(View.VISIBLE);
-                        tasksCount.setText("0 remaining");
-                    } else {
-                        tasksPreviewList.setVisibility(View.VISIBLE);
-                        noTasksText.setVisibility(View.GONE);
-                        tasksCount.setText(tasks.size() + " remaining");
-                        
-                        TaskPreviewAdapter adapter = new TaskPreviewAdapter(tasks, (task, completed) -> {
-                            repository.setTaskCompleted(task.getId(), completed, null);
-                        });
-                        tasksPreviewList.setAdapter(adapter);
-                    }
-                });
-            }
-
-            @Override
-            public void onError(Exception e) {
-                // Handle error
-            }
-        });
+    private void showTasks(List<TaskRow> tasks, int remaining) {
+        tasksCount.setText(remaining + " remaining");
+        if (tasks.isEmpty()) {
+            tasksPreviewList.setVisibility(View.GONE);
+            noTasksText.setVisibility(View.VISIBLE);
+        } else {
+            tasksPreviewList.setVisibility(View.VISIBLE);
+            noTasksText.setVisibility(View.GONE);
+        }
+        tasksAdapter.submitList(tasks);
     }
 
     private void updateModeBadge() {
@@ -320,12 +251,4 @@ public class HomeFragment extends Fragment {
                     getResources().getColorStateList(R.color.mode_home, null));
         }
     }
-
-    @Override
-    public void onDestroyView() {
-        super.onDestroyView();
-        if (countdownRunnable != null) {
-            handler.removeCallbacks(countdownRunnable);
-        }
-    }
 }
@@ -7,28 +7,47 @@ import android.widget.CheckBox;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.studenthub.R;
-import com.studenthub.data.local.entity.TaskEntity;
-
-import java.util.List;
+import com.studenthub.data.local.model.TaskRow;
+import com.studenthub.util.StableIds;
 
 /**
  * Simple adapter for showing task previews on home dashboard.
  */
-public class TaskPreviewAdapter extends RecyclerView.Adapter<TaskPreviewAdapter.ViewHolder> {
+public class TaskPreviewAdapter extends ListAdapter<TaskRow, TaskPreviewAdapter.ViewHolder> {
+
+    private static final DiffUtil.ItemCallback<TaskRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<TaskRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TaskRow oldItem, @NonNull TaskRow newItem) {
+            return oldItem.id.equals(newItem.id);
+        }
 
-    private final List<TaskEntity> tasks;
+        @Override
+        public boolean areContentsTheSame(@NonNull TaskRow oldItem, @NonNull TaskRow newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    private final StableIds stableIds = new StableIds();
     private final OnTaskCheckedListener listener;
 
     public interface OnTaskCheckedListener {
-        void onTaskChecked(TaskEntity task, boolean completed);
+        void onTaskChecked(TaskRow task, boolean completed);
     }
 
-    public TaskPreviewAdapter(List<TaskEntity> tasks, OnTaskCheckedListener listener) {
-        this.tasks = tasks;
+    public TaskPreviewAdapter(OnTaskCheckedListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.idFor(getItem(position).id);
     }
 
     @NonNull
@@ -41,15 +60,10 @@ public class TaskPreviewAdapter extends RecyclerView.Adapter<TaskPreviewAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        TaskEntity task = tasks.get(position);
+        TaskRow task = getItem(position);
         holder.bind(task, listener);
     }
 
-    @Override
-    public int getItemCount() {
-        return tasks.size();
-    }
-
     static class ViewHolder extends RecyclerView.ViewHolder {
         private final CheckBox checkbox;
         private final TextView title;
@@ -60,9 +74,11 @@ public class TaskPreviewAdapter extends RecyclerView.Adapter<TaskPreviewAdapter.
             title = itemView.findViewById(R.id.title);
         }
 
-        void bind(TaskEntity task, OnTaskCheckedListener listener) {
-            title.setText(task.getTitle());
-            checkbox.setChecked(task.isCompleted());
+        void bind(TaskRow task, OnTaskCheckedListener listener) {
+            title.setText(task.title);
+            // Detach first so rebinding a recycled row doesn't fire the old listener
+            checkbox.setOnCheckedChangeListener(null);
+            checkbox.setChecked(task.completed);
             
             checkbox.setOnCheckedChangeListener((buttonView, isChecked) -> {
                 if (listener != null) {
@@ -6,29 +6,50 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.studenthub.R;
-import com.studenthub.data.local.entity.ClassEntity;
+import com.studenthub.data.local.model.ClassRow;
+import com.studenthub.util.StableIds;
 
 import java.util.Calendar;
-import java.util.List;
 
 /**
  * Adapter for displaying class items in schedule lists.
+ * Lists are diffed off the main thread; only changed rows are rebound.
  */
-public class ClassAdapter extends RecyclerView.Adapter<ClassAdapter.ViewHolder> {
+public class ClassAdapter extends ListAdapter<ClassRow, ClassAdapter.ViewHolder> {
 
-    private final List<ClassEntity> classes;
+    private static final DiffUtil.ItemCallback<ClassRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<ClassRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ClassRow oldItem, @NonNull ClassRow newItem) {
+            return oldItem.id.equals(newItem.id);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ClassRow oldItem, @NonNull ClassRow newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    private final StableIds stableIds = new StableIds();
     private final OnClassClickListener listener;
 
     public interface OnClassClickListener {
-        void onClassClick(ClassEntity classEntity);
+        void onClassClick(ClassRow classRow);
     }
 
-    public ClassAdapter(List<ClassEntity> classes, OnClassClickListener listener) {
-        this.classes = classes;
+    public ClassAdapter(OnClassClickListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.idFor(getItem(position).id);
     }
 
     @NonNull
@@ -41,13 +62,8 @@ public class ClassAdapter extends RecyclerView.Adapter<ClassAdapter.ViewHolder>
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        ClassEntity classEntity = classes.get(position);
-        holder.bind(classEntity, listener);
-    }
-
-    @Override
-    public int getItemCount() {
-        return classes.size();
+        ClassRow classRow = getItem(position);
+        holder.bind(classRow, listener);
     }
 
     static class ViewHolder extends RecyclerView.ViewHolder {
@@ -66,12 +82,12 @@ public class ClassAdapter extends RecyclerView.Adapter<ClassAdapter.ViewHolder>
             statusBadge = itemView.findViewById(R.id.status_badge);
         }
 
-        void bind(ClassEntity classEntity, OnClassClickListener listener) {
-            startTime.setText(classEntity.getFormattedStartTime());
-            endTime.setText(classEntity.getFormattedEndTime());
-            className.setText(classEntity.getName());
+        void bind(ClassRow classRow, OnClassClickListener listener) {
+            startTime.setText(classRow.getFormattedStartTime());
+            endTime.setText(classRow.getFormattedEndTime());
+            className.setText(classRow.name);
             
-            String loc = classEntity.getLocation();
+            String loc = classRow.getLocation();
             if (loc != null && !loc.isEmpty()) {
                 location.setText(loc);
                 location.setVisibility(View.VISIBLE);
@@ -84,16 +100,16 @@ public class ClassAdapter extends RecyclerView.Adapter<ClassAdapter.ViewHolder>
             int currentMinutes = now.get(Calendar.HOUR_OF_DAY) * 60 + now.get(Calendar.MINUTE);
             int today = now.get(Calendar.DAY_OF_WEEK);
 
-            if (classEntity.occursOnDay(today)) {
-                if (currentMinutes >= classEntity.getStartTime() && 
-                    currentMinutes < classEntity.getEndTime()) {
+            if (classRow.occursOnDay(today)) {
+                if (currentMinutes >= classRow.startTime && 
+                    currentMinutes < classRow.endTime) {
                     statusBadge.setText(R.string.in_progress);
                     statusBadge.setBackgroundTintList(
                         itemView.getContext().getResources().getColorStateList(R.color.success, null));
                     statusBadge.setVisibility(View.VISIBLE);
-                } else if (classEntity.getStartTime() - currentMinutes > 0 && 
-                           classEntity.getStartTime() - currentMinutes <= 30) {
-                    int mins = classEntity.getStartTime() - currentMinutes;
+                } else if (classRow.startTime - currentMinutes > 0 && 
+                           classRow.startTime - currentMinutes <= 30) {
+                    int mins = classRow.startTime - currentMinutes;
                     statusBadge.setText("In " + mins + " min");
                     statusBadge.setBackgroundTintList(
                         itemView.getContext().getResources().getColorStateList(R.color.warning, null));
@@ -107,7 +123,7 @@ public class ClassAdapter extends RecyclerView.Adapter<ClassAdapter.ViewHolder>
 
             itemView.setOnClickListener(v -> {
                 if (listener != null) {
-                    listener.onClassClick(classEntity);
+                    listener.onClassClick(classRow);
                 }
             });
         }
@@ -18,7 +18,7 @@ import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.tabs.TabLayout;
 import com.google.android.material.tabs.TabLayoutMediator;
 import com.studenthub.R;
-import com.studenthub.data.local.entity.ClassEntity;
+import com.studenthub.data.local.model.ClassRow;
 import com.studenthub.data.repository.DataRepository;
 import com.studenthub.util.DateTimeUtils;
 
@@ -89,6 +89,7 @@ public class ScheduleFragment extends Fragment {
         private RecyclerView recyclerView;
         private View emptyState;
         private DataRepository repository;
+        private ClassAdapter adapter;
 
         @Nullable
         @Override
@@ -105,33 +106,28 @@ public class ScheduleFragment extends Fragment {
             super.onViewCreated(view, savedInstanceState);
             repository = DataRepository.getInstance(requireContext());
             recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
-            loadTodayClasses();
-        }
-
-        @Override
-        public void onResume() {
-            super.onResume();
+            adapter = new ClassAdapter(this::openClassEditor);
+            recyclerView.setAdapter(adapter);
             loadTodayClasses();
         }
 
         private void loadTodayClasses() {
             int today = DateTimeUtils.getCurrentDayOfWeek();
-            repository.getClassesForDay(today).observe(getViewLifecycleOwner(), classes -> {
+            repository.getClassRowsForDay(today).observe(getViewLifecycleOwner(), classes -> {
                 if (classes == null || classes.isEmpty()) {
                     recyclerView.setVisibility(View.GONE);
                     emptyState.setVisibility(View.VISIBLE);
                 } else {
                     recyclerView.setVisibility(View.VISIBLE);
                     emptyState.setVisibility(View.GONE);
-                    ClassAdapter adapter = new ClassAdapter(classes, this::openClassEditor);
-                    recyclerView.setAdapter(adapter);
+                    adapter.submitList(classes);
                 }
             });
         }
 
-        private void openClassEditor(ClassEntity classEntity) {
+        private void openClassEditor(ClassRow classRow) {
             Intent intent = new Intent(requireContext(), ClassEditorActivity.class);
-            intent.putExtra(ClassEditorActivity.EXTRA_CLASS_ID, classEntity.getId());
+            intent.putExtra(ClassEditorActivity.EXTRA_CLASS_ID, classRow.id);
             startActivity(intent);
         }
     }
@@ -140,6 +136,7 @@ public class ScheduleFragment extends Fragment {
         private RecyclerView recyclerView;
         private View emptyState;
         private DataRepository repository;
+        private ClassAdapter adapter;
 
         @Nullable
         @Override
@@ -156,32 +153,27 @@ public class ScheduleFragment extends Fragment {
             super.onViewCreated(view, savedInstanceState);
             repository = DataRepository.getInstance(requireContext());
             recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
-            loadAllClasses();
-        }
-
-        @Override
-        public void onResume() {
-            super.onResume();
+            adapter = new ClassAdapter(this::openClassEditor);
+            recyclerView.setAdapter(adapter);
             loadAllClasses();
         }
 
         private void loadAllClasses() {
-            repository.getAllClasses().observe(getViewLifecycleOwner(), classes -> {
+            repository.getClassRows().observe(getViewLifecycleOwner(), classes -> {
                 if (classes == null || classes.isEmpty()) {
                     recyclerView.setVisibility(View.GONE);
                     emptyState.setVisibility(View.VISIBLE);
                 } else {
                     recyclerView.setVisibility(View.VISIBLE);
                     emptyState.setVisibility(View.GONE);
-                    ClassAdapter adapter = new ClassAdapter(classes, this::openClassEditor);
-                    recyclerView.setAdapter(adapter);
+                    adapter.submitList(classes);
                 }
             });
         }
 
-        private void openClassEditor(ClassEntity classEntity) {
+        private void openClassEditor(ClassRow classRow) {
             Intent intent = new Intent(requireContext(), ClassEditorActivity.class);
-            intent.putExtra(ClassEditorActivity.EXTRA_CLASS_ID, classEntity.getId());
+            intent.putExtra(ClassEditorActivity.EXTRA_CLASS_ID, classRow.id);
             startActivity(intent);
         }
     }
@@ -0,0 +1,86 @@
+package com.studenthub.ui.settings;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.google.android.material.appbar.MaterialToolbar;
+import com.google.android.material.button.MaterialButton;
+import com.studenthub.R;
+import com.studenthub.diagnostics.Metrics;
+import com.studenthub.util.DateTimeUtils;
+
+import org.json.JSONException;
+
+/**
+ * Debug screen showing the sync and database metrics recorded since launch.
+ * The report refreshes while visible so a sync can be watched as it runs,
+ * and the full dump can be shared as JSON.
+ */
+public class DiagnosticsActivity extends AppCompatActivity {
+
+    private static final long REFRESH_MS = 1000;
+    private static final int SHOWN_EVENTS = 100;
+
+    private TextView diagnosticsText;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable refresh = new Runnable() {
+        @Override
+        public void run() {
+            diagnosticsText.setText(Metrics.getInstance().toText(SHOWN_EVENTS));
+            handler.postDelayed(this, REFRESH_MS);
+        }
+    };
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_diagnostics);
+
+        MaterialToolbar toolbar = findViewById(R.id.toolbar);
+        toolbar.setNavigationOnClickListener(v -> finish());
+
+        diagnosticsText = findViewById(R.id.diagnostics_text);
+        MaterialButton resetButton = findViewById(R.id.reset_button);
+        MaterialButton exportButton = findViewById(R.id.export_button);
+
+        resetButton.setOnClickListener(v -> {
+            Metrics.getInstance().reset();
+            diagnosticsText.setText(Metrics.getInstance().toText(SHOWN_EVENTS));
+        });
+        exportButton.setOnClickListener(v -> export());
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refresh.run();
+    }
+
+    @Override
+    protected void onPause() {
+        handler.removeCallbacks(refresh);
+        super.onPause();
+    }
+
+    private void export() {
+        String json;
+        try {
+            json = Metrics.getInstance().toJson().toString(2);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+
+        Intent intent = new Intent(Intent.ACTION_SEND);
+        intent.setType("application/json");
+        intent.putExtra(Intent.EXTRA_SUBJECT, getString(R.string.diagnostics_subject,
+                DateTimeUtils.formatDateTime(System.currentTimeMillis())));
+        intent.putExtra(Intent.EXTRA_TEXT, json);
+        startActivity(Intent.createChooser(intent, getString(R.string.diagnostics_export)));
+    }
+}
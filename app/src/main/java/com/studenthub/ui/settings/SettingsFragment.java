@@ -1,6 +1,7 @@
 package com.studenthub.ui.settings;
 
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -21,9 +22,11 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.studenthub.R;
 import com.studenthub.data.repository.DataRepository;
+import com.studenthub.reminder.ReminderScheduler;
 import com.studenthub.ui.auth.LoginActivity;
 import com.studenthub.util.DateTimeUtils;
 import com.studenthub.util.PreferencesManager;
+import com.studenthub.worker.SyncWorker;
 
 /**
  * Settings fragment for app preferences.
@@ -33,9 +36,11 @@ public class SettingsFragment extends Fragment {
     private TextView userEmail, classReminderValue, quietHoursValue;
     private TextView homeLocationValue, campusLocationValue, currentModeValue, lastSyncValue;
     private MaterialSwitch darkModeSwitch, dueTomorrowSwitch, dueHourSwitch, quietHoursSwitch;
+    private MaterialSwitch liveSyncSwitch;
     private CircularProgressIndicator syncProgress;
     private View logoutButton, classReminderSetting, quietHoursSetting;
     private View homeLocationSetting, campusLocationSetting, modeToggleButton, syncNowButton;
+    private View diagnosticsSection, diagnosticsButton;
 
     private PreferencesManager prefs;
     private DataRepository repository;
@@ -83,6 +88,9 @@ public class SettingsFragment extends Fragment {
         syncNowButton = view.findViewById(R.id.sync_now_button);
         lastSyncValue = view.findViewById(R.id.last_sync_value);
         syncProgress = view.findViewById(R.id.sync_progress);
+        liveSyncSwitch = view.findViewById(R.id.live_sync_switch);
+        diagnosticsSection = view.findViewById(R.id.diagnostics_section);
+        diagnosticsButton = view.findViewById(R.id.diagnostics_button);
     }
 
     private void loadSettings() {
@@ -115,6 +123,13 @@ public class SettingsFragment extends Fragment {
 
         // Last sync
         updateLastSyncDisplay();
+        
+        // Live sync
+        liveSyncSwitch.setChecked(prefs.isLiveSyncEnabled());
+
+        // Diagnostics are for debug builds only
+        boolean debuggable = (requireContext().getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        diagnosticsSection.setVisibility(debuggable ? View.VISIBLE : View.GONE);
     }
 
     private void setupListeners() {
@@ -128,11 +143,15 @@ public class SettingsFragment extends Fragment {
 
         classReminderSetting.setOnClickListener(v -> showReminderTimeDialog());
 
-        dueTomorrowSwitch.setOnCheckedChangeListener((buttonView, isChecked) -> 
-                prefs.setDueTomorrowReminderEnabled(isChecked));
+        dueTomorrowSwitch.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            prefs.setDueTomorrowReminderEnabled(isChecked);
+            ReminderScheduler.getInstance(requireContext()).reschedule();
+        });
 
-        dueHourSwitch.setOnCheckedChangeListener((buttonView, isChecked) -> 
-                prefs.setDueHourReminderEnabled(isChecked));
+        dueHourSwitch.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            prefs.setDueHourReminderEnabled(isChecked);
+            ReminderScheduler.getInstance(requireContext()).reschedule();
+        });
 
         quietHoursSwitch.setOnCheckedChangeListener((buttonView, isChecked) -> 
                 prefs.setQuietHoursEnabled(isChecked));
@@ -143,6 +162,18 @@ public class SettingsFragment extends Fragment {
         modeToggleButton.setOnClickListener(v -> showModeDialog());
 
         syncNowButton.setOnClickListener(v -> performSync());
+
+        liveSyncSwitch.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            prefs.setLiveSyncEnabled(isChecked);
+            if (isChecked) {
+                repository.startLiveSync();
+            } else {
+                repository.stopLiveSync();
+            }
+        });
+
+        diagnosticsButton.setOnClickListener(v ->
+                startActivity(new Intent(requireContext(), DiagnosticsActivity.class)));
     }
 
     private void showReminderTimeDialog() {
@@ -162,6 +193,7 @@ public class SettingsFragment extends Fragment {
                 .setTitle(R.string.reminder_time)
                 .setSingleChoiceItems(options, selectedIndex, (dialog, which) -> {
                     prefs.setClassReminderMinutes(values[which]);
+                    ReminderScheduler.getInstance(requireContext()).reschedule();
                     classReminderValue.setText(getString(R.string.minutes_before, values[which]));
                     dialog.dismiss();
                 })
@@ -267,6 +299,10 @@ public class SettingsFragment extends Fragment {
     }
 
     private void logout() {
+        repository.stopLiveSync();
+        repository.cancelSync();
+        SyncWorker.cancelAll(requireContext());
+        ReminderScheduler.getInstance(requireContext()).cancelAll();
         FirebaseAuth.getInstance().signOut();
         Intent intent = new Intent(requireContext(), LoginActivity.class);
         intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
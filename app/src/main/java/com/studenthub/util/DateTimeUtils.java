@@ -1,123 +1,211 @@
 package com.studenthub.util;
 
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Calendar;
-import java.util.Date;
 import java.util.Locale;
+import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Utility class for date and time formatting operations.
+ *
+ * Thread-safe: formatters are immutable {@link DateTimeFormatter}s and day
+ * checks work on epoch days against a cached {@link DaySnapshot}, which is
+ * rebuilt at midnight or when {@link #onTimeZoneChanged()} is called.
  */
 public class DateTimeUtils {
     
-    private static final SimpleDateFormat TIME_FORMAT_12H = 
-        new SimpleDateFormat("h:mm a", Locale.getDefault());
-    private static final SimpleDateFormat TIME_FORMAT_24H = 
-        new SimpleDateFormat("HH:mm", Locale.getDefault());
-    private static final SimpleDateFormat DATE_FORMAT = 
-        new SimpleDateFormat("MMM d, yyyy", Locale.getDefault());
-    private static final SimpleDateFormat DATE_FORMAT_SHORT = 
-        new SimpleDateFormat("MMM d", Locale.getDefault());
-    private static final SimpleDateFormat DATETIME_FORMAT = 
-        new SimpleDateFormat("MMM d, yyyy h:mm a", Locale.getDefault());
-    private static final SimpleDateFormat DAY_FORMAT = 
-        new SimpleDateFormat("EEEE", Locale.getDefault());
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long MINUTE_MS = TimeUnit.MINUTES.toMillis(1);
+    
+    private static final DateTimeFormatter TIME_FORMAT_12H =
+        DateTimeFormatter.ofPattern("h:mm a", Locale.getDefault());
+    private static final DateTimeFormatter DATE_FORMAT =
+        DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.getDefault());
+    private static final DateTimeFormatter DATE_FORMAT_SHORT =
+        DateTimeFormatter.ofPattern("MMM d", Locale.getDefault());
+    private static final DateTimeFormatter DATETIME_FORMAT =
+        DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a", Locale.getDefault());
+    private static final DateTimeFormatter DAY_FORMAT =
+        DateTimeFormatter.ofPattern("EEEE", Locale.getDefault());
+    
+    private static volatile DaySnapshot snapshot;
+    
+    /**
+     * Zone and boundaries of the current local day. Immutable, so readers
+     * never need a lock; a stale one is simply replaced.
+     */
+    private static final class DaySnapshot {
+        final ZoneId zone;
+        final TimeZone timeZone;
+        final long today;
+        final long startOfToday;
+        final long startOfTomorrow;
+        
+        DaySnapshot(long now) {
+            timeZone = TimeZone.getDefault();
+            zone = timeZone.toZoneId();
+            today = Math.floorDiv(now + timeZone.getOffset(now), DAY_MS);
+            startOfToday = startOfEpochDay(zone, today);
+            startOfTomorrow = startOfEpochDay(zone, today + 1);
+        }
+        
+        boolean covers(long now) {
+            return now >= startOfToday && now < startOfTomorrow;
+        }
+        
+        long epochDay(long timestamp) {
+            return Math.floorDiv(timestamp + timeZone.getOffset(timestamp), DAY_MS);
+        }
+        
+        int minuteOfDay(long timestamp) {
+            return (int) (Math.floorMod(timestamp + timeZone.getOffset(timestamp), DAY_MS) / MINUTE_MS);
+        }
+    }
+    
+    private static DaySnapshot snapshot(long now) {
+        DaySnapshot current = snapshot;
+        if (current == null || !current.covers(now)) {
+            current = new DaySnapshot(now);
+            snapshot = current;
+        }
+        return current;
+    }
+    
+    private static long startOfEpochDay(ZoneId zone, long epochDay) {
+        // atStartOfDay handles days that begin at 01:00 because of DST
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+    
+    /**
+     * Drop the cached day boundaries; call when the time zone or clock changes.
+     */
+    public static void onTimeZoneChanged() {
+        snapshot = null;
+    }
     
     /**
      * Format time in 12-hour format (e.g., "9:30 AM")
      */
     public static String formatTime(long timestamp) {
-        return TIME_FORMAT_12H.format(new Date(timestamp));
+        return format(TIME_FORMAT_12H, timestamp);
     }
     
     /**
      * Format time from hour and minute (e.g., "9:30 AM")
      */
     public static String formatTime(int hour, int minute) {
-        Calendar cal = Calendar.getInstance();
-        cal.set(Calendar.HOUR_OF_DAY, hour);
-        cal.set(Calendar.MINUTE, minute);
-        return TIME_FORMAT_12H.format(cal.getTime());
+        return TIME_FORMAT_12H.format(LocalTime.of(hour, minute));
     }
     
     /**
      * Format date (e.g., "Jan 15, 2024")
      */
     public static String formatDate(long timestamp) {
-        return DATE_FORMAT.format(new Date(timestamp));
+        return format(DATE_FORMAT, timestamp);
     }
     
     /**
      * Format date short (e.g., "Jan 15")
      */
     public static String formatDateShort(long timestamp) {
-        return DATE_FORMAT_SHORT.format(new Date(timestamp));
+        return format(DATE_FORMAT_SHORT, timestamp);
     }
     
     /**
      * Format date and time (e.g., "Jan 15, 2024 9:30 AM")
      */
     public static String formatDateTime(long timestamp) {
-        return DATETIME_FORMAT.format(new Date(timestamp));
+        return format(DATETIME_FORMAT, timestamp);
     }
     
     /**
      * Get day name (e.g., "Monday")
      */
     public static String getDayName(long timestamp) {
-        return DAY_FORMAT.format(new Date(timestamp));
+        return format(DAY_FORMAT, timestamp);
+    }
+    
+    private static String format(DateTimeFormatter formatter, long timestamp) {
+        ZoneId zone = snapshot(System.currentTimeMillis()).zone;
+        return formatter.format(Instant.ofEpochMilli(timestamp).atZone(zone));
     }
     
     /**
      * Get current day of week (Calendar.SUNDAY = 1, Calendar.SATURDAY = 7)
      */
     public static int getCurrentDayOfWeek() {
-        return Calendar.getInstance().get(Calendar.DAY_OF_WEEK);
+        return dayOfWeek(snapshot(System.currentTimeMillis()).today);
+    }
+    
+    /**
+     * Get minutes elapsed since local midnight (e.g., 570 for 9:30 AM)
+     */
+    public static int getCurrentMinuteOfDay() {
+        long now = System.currentTimeMillis();
+        return snapshot(now).minuteOfDay(now);
+    }
+    
+    /**
+     * Get milliseconds until the next local minute boundary
+     */
+    public static long getMillisUntilNextMinute() {
+        long now = System.currentTimeMillis();
+        DaySnapshot day = snapshot(now);
+        return MINUTE_MS - Math.floorMod(now + day.timeZone.getOffset(now), MINUTE_MS);
+    }
+    
+    /**
+     * Get the local calendar day of a timestamp, as days since 1970-01-01
+     */
+    public static long getEpochDay(long timestamp) {
+        return snapshot(System.currentTimeMillis()).epochDay(timestamp);
+    }
+    
+    /**
+     * Get the epoch day of the Sunday starting the week that contains an epoch day
+     */
+    public static long getWeekStart(long epochDay) {
+        return epochDay - (dayOfWeek(epochDay) - Calendar.SUNDAY);
+    }
+    
+    /**
+     * Calendar day of week for an epoch day; 1970-01-01 was a Thursday.
+     */
+    private static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + Calendar.THURSDAY - 1, 7L) + 1;
     }
     
     /**
      * Check if timestamp is today
      */
     public static boolean isToday(long timestamp) {
-        Calendar today = Calendar.getInstance();
-        Calendar target = Calendar.getInstance();
-        target.setTimeInMillis(timestamp);
-        
-        return today.get(Calendar.YEAR) == target.get(Calendar.YEAR) &&
-               today.get(Calendar.DAY_OF_YEAR) == target.get(Calendar.DAY_OF_YEAR);
+        DaySnapshot day = snapshot(System.currentTimeMillis());
+        return timestamp >= day.startOfToday && timestamp < day.startOfTomorrow;
     }
     
     /**
      * Check if timestamp is tomorrow
      */
     public static boolean isTomorrow(long timestamp) {
-        Calendar tomorrow = Calendar.getInstance();
-        tomorrow.add(Calendar.DAY_OF_YEAR, 1);
-        
-        Calendar target = Calendar.getInstance();
-        target.setTimeInMillis(timestamp);
-        
-        return tomorrow.get(Calendar.YEAR) == target.get(Calendar.YEAR) &&
-               tomorrow.get(Calendar.DAY_OF_YEAR) == target.get(Calendar.DAY_OF_YEAR);
+        DaySnapshot day = snapshot(System.currentTimeMillis());
+        return day.epochDay(timestamp) == day.today + 1;
     }
     
     /**
      * Check if timestamp is within this week
      */
     public static boolean isThisWeek(long timestamp) {
-        Calendar now = Calendar.getInstance();
-        Calendar target = Calendar.getInstance();
-        target.setTimeInMillis(timestamp);
-        
-        // Get end of week (Saturday)
-        Calendar endOfWeek = Calendar.getInstance();
-        endOfWeek.set(Calendar.DAY_OF_WEEK, Calendar.SATURDAY);
-        endOfWeek.set(Calendar.HOUR_OF_DAY, 23);
-        endOfWeek.set(Calendar.MINUTE, 59);
-        endOfWeek.set(Calendar.SECOND, 59);
+        long now = System.currentTimeMillis();
+        DaySnapshot day = snapshot(now);
         
-        return target.after(now) && target.before(endOfWeek);
+        // Week ends after Saturday
+        long daysUntilSunday = Calendar.SATURDAY - dayOfWeek(day.today) + 1;
+        return timestamp > now && day.epochDay(timestamp) < day.today + daysUntilSunday;
     }
     
     /**
@@ -168,33 +256,30 @@ public class DateTimeUtils {
      * Get start of day timestamp
      */
     public static long getStartOfDay(long timestamp) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTimeInMillis(timestamp);
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
-        return cal.getTimeInMillis();
+        DaySnapshot day = snapshot(System.currentTimeMillis());
+        if (timestamp >= day.startOfToday && timestamp < day.startOfTomorrow) {
+            return day.startOfToday;
+        }
+        return startOfEpochDay(day.zone, day.epochDay(timestamp));
     }
     
     /**
      * Get end of day timestamp
      */
     public static long getEndOfDay(long timestamp) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTimeInMillis(timestamp);
-        cal.set(Calendar.HOUR_OF_DAY, 23);
-        cal.set(Calendar.MINUTE, 59);
-        cal.set(Calendar.SECOND, 59);
-        cal.set(Calendar.MILLISECOND, 999);
-        return cal.getTimeInMillis();
+        DaySnapshot day = snapshot(System.currentTimeMillis());
+        if (timestamp >= day.startOfToday && timestamp < day.startOfTomorrow) {
+            return day.startOfTomorrow - 1;
+        }
+        return startOfEpochDay(day.zone, day.epochDay(timestamp) + 1) - 1;
     }
     
     /**
      * Get greeting based on time of day
      */
     public static String getGreeting() {
-        int hour = Calendar.getInstance().get(Calendar.HOUR_OF_DAY);
+        long now = System.currentTimeMillis();
+        int hour = snapshot(now).minuteOfDay(now) / 60;
         
         if (hour >= 5 && hour < 12) {
             return "Good Morning";
@@ -211,20 +296,17 @@ public class DateTimeUtils {
      * Convert hour and minute to timestamp for today
      */
     public static long getTimestampForToday(int hour, int minute) {
-        Calendar cal = Calendar.getInstance();
-        cal.set(Calendar.HOUR_OF_DAY, hour);
-        cal.set(Calendar.MINUTE, minute);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
-        return cal.getTimeInMillis();
+        DaySnapshot day = snapshot(System.currentTimeMillis());
+        return LocalDate.ofEpochDay(day.today).atTime(hour, minute)
+            .atZone(day.zone).toInstant().toEpochMilli();
     }
     
     /**
      * Check if current time is within quiet hours
      */
     public static boolean isWithinQuietHours(int startMinutes, int endMinutes) {
-        Calendar now = Calendar.getInstance();
-        int currentMinutes = now.get(Calendar.HOUR_OF_DAY) * 60 + now.get(Calendar.MINUTE);
+        long now = System.currentTimeMillis();
+        int currentMinutes = snapshot(now).minuteOfDay(now);
         
         if (startMinutes < endMinutes) {
             // Same day range (e.g., 9:00 - 17:00)
@@ -0,0 +1,59 @@
+package com.studenthub.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Locale;
+
+/**
+ * Helpers for building FTS4 MATCH expressions from user input and ranking
+ * hits, since FTS4 has no built-in relevance function.
+ */
+public final class FtsUtils {
+
+    private FtsUtils() {}
+
+    /**
+     * Turn free text into a prefix query where every word must match,
+     * e.g. "Calc hw" becomes "calc* hw*". Punctuation and FTS operators are
+     * dropped so user input can never produce a malformed expression.
+     *
+     * @return the MATCH expression, or null if the input has no words
+     */
+    public static String toPrefixQuery(String input) {
+        if (input == null) return null;
+        StringBuilder match = new StringBuilder();
+        for (String word : input.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) continue;
+            if (match.length() > 0) match.append(' ');
+            match.append(word).append('*');
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+
+    /**
+     * Score a row from its matchinfo(..., 'pcx') blob: for every phrase and
+     * column, hits in this row over hits in all rows, times the column weight.
+     * Rare terms and hits in heavily weighted columns rank first.
+     *
+     * @param weights one weight per indexed column, in declaration order
+     */
+    public static double score(byte[] matchInfo, double... weights) {
+        if (matchInfo == null) return 0;
+        ByteBuffer buffer = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int phrases = buffer.getInt(0);
+        int columns = buffer.getInt(4);
+
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns && column < weights.length; column++) {
+                int offset = 8 + (phrase * columns + column) * 12;
+                int hitsInRow = buffer.getInt(offset);
+                int hitsInAllRows = buffer.getInt(offset + 4);
+                if (hitsInRow > 0) {
+                    score += weights[column] * hitsInRow / hitsInAllRows;
+                }
+            }
+        }
+        return score;
+    }
+}
@@ -19,6 +19,9 @@ public class PreferencesManager {
     private static final String KEY_QUIET_HOURS_ENABLED = "quiet_hours_enabled";
     private static final String KEY_QUIET_HOURS_START = "quiet_hours_start";
     private static final String KEY_QUIET_HOURS_END = "quiet_hours_end";
+    private static final String KEY_REMINDER_WATERMARK = "reminder_watermark";
+    private static final String KEY_REMINDER_NEXT_AT = "reminder_next_at";
+    private static final String KEY_REMINDER_SOURCE = "reminder_source";
     private static final String KEY_HOME_LAT = "home_latitude";
     private static final String KEY_HOME_LNG = "home_longitude";
     private static final String KEY_HOME_RADIUS = "home_radius";
@@ -28,6 +31,8 @@ public class PreferencesManager {
     private static final String KEY_MANUAL_MODE = "manual_mode";
     private static final String KEY_CURRENT_MODE = "current_mode";
     private static final String KEY_LAST_SYNC = "last_sync";
+    private static final String KEY_SYNC_WATERMARK_PREFIX = "sync_watermark_";
+    private static final String KEY_LIVE_SYNC = "live_sync";
     private static final String KEY_FOCUS_DURATION = "focus_duration";
     private static final String KEY_BREAK_DURATION = "break_duration";
     private static final String KEY_LONG_BREAK_DURATION = "long_break_duration";
@@ -118,6 +123,37 @@ public class PreferencesManager {
         prefs.edit().putInt(KEY_QUIET_HOURS_END, minutesFromMidnight).apply();
     }
     
+    // Reminder Scheduling
+    
+    /**
+     * Fire time of the last reminder batch that was posted.
+     */
+    public long getReminderWatermark() {
+        return prefs.getLong(KEY_REMINDER_WATERMARK, 0);
+    }
+    
+    public void setReminderWatermark(long timestamp) {
+        prefs.edit().putLong(KEY_REMINDER_WATERMARK, timestamp).apply();
+    }
+    
+    /**
+     * Fire time and source document of the currently armed reminder alarm.
+     */
+    public long getArmedReminderTime() {
+        return prefs.getLong(KEY_REMINDER_NEXT_AT, 0);
+    }
+    
+    public String getArmedReminderSource() {
+        return prefs.getString(KEY_REMINDER_SOURCE, null);
+    }
+    
+    public void setArmedReminder(long timestamp, String sourceId) {
+        prefs.edit()
+            .putLong(KEY_REMINDER_NEXT_AT, timestamp)
+            .putString(KEY_REMINDER_SOURCE, sourceId)
+            .apply();
+    }
+    
     // Home Location
     public double getHomeLatitude() {
         return Double.longBitsToDouble(prefs.getLong(KEY_HOME_LAT, Double.doubleToLongBits(0)));
@@ -194,6 +230,50 @@ public class PreferencesManager {
         prefs.edit().putLong(KEY_LAST_SYNC, timestamp).apply();
     }
     
+    /**
+     * High-water mark of the newest remote change already pulled for a collection.
+     * Keyed per user so switching accounts on one device starts from a full pull.
+     */
+    public long getSyncWatermark(String userId, String collection) {
+        return prefs.getLong(KEY_SYNC_WATERMARK_PREFIX + userId + "_" + collection, 0);
+    }
+    
+    public void setSyncWatermark(String userId, String collection, long watermark) {
+        prefs.edit().putLong(KEY_SYNC_WATERMARK_PREFIX + userId + "_" + collection, watermark).apply();
+    }
+    
+    /**
+     * Move a collection's watermark forward; pulls and live listeners may
+     * report out of order, so it never moves back.
+     */
+    public synchronized void advanceSyncWatermark(String userId, String collection, long watermark) {
+        if (watermark > getSyncWatermark(userId, collection)) {
+            setSyncWatermark(userId, collection, watermark);
+        }
+    }
+    
+    /**
+     * Forget all watermarks so the next sync does a full pull.
+     * Must be called whenever the local database is recreated.
+     */
+    public void clearSyncWatermarks() {
+        SharedPreferences.Editor editor = prefs.edit();
+        for (String key : prefs.getAll().keySet()) {
+            if (key.startsWith(KEY_SYNC_WATERMARK_PREFIX)) {
+                editor.remove(key);
+            }
+        }
+        editor.apply();
+    }
+    
+    public boolean isLiveSyncEnabled() {
+        return prefs.getBoolean(KEY_LIVE_SYNC, false);
+    }
+    
+    public void setLiveSyncEnabled(boolean enabled) {
+        prefs.edit().putBoolean(KEY_LIVE_SYNC, enabled).apply();
+    }
+    
     // Focus Mode Settings
     public int getFocusDuration() {
         return prefs.getInt(KEY_FOCUS_DURATION, 25);
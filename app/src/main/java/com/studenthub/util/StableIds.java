@@ -0,0 +1,24 @@
+package com.studenthub.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps string document ids to unique long ids for RecyclerView stable ids.
+ * Unlike {@link String#hashCode()}, two different keys never collide.
+ * Main thread only, like the adapters that use it.
+ */
+public class StableIds {
+
+    private final Map<String, Long> ids = new HashMap<>();
+    private long nextId;
+
+    public long idFor(String key) {
+        Long id = ids.get(key);
+        if (id == null) {
+            id = nextId++;
+            ids.put(key, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,65 @@
+package com.studenthub.worker;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.studenthub.data.local.database.AppDatabase;
+import com.studenthub.data.sync.TombstoneCompactor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily database upkeep: purges acknowledged tombstones, then refreshes
+ * planner statistics and vacuums when enough space is free.
+ * Runs only while the device is idle and the battery is not low.
+ */
+public class MaintenanceWorker extends Worker {
+
+    private static final String TAG = "MaintenanceWorker";
+
+    private static final String WORK_NAME = "db_maintenance";
+
+    public MaintenanceWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        AppDatabase db = AppDatabase.getInstance(getApplicationContext());
+        try {
+            new TombstoneCompactor(db).compact(System.currentTimeMillis());
+            db.compactStorage();
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Maintenance failed", e);
+            return Result.retry();
+        }
+    }
+
+    /**
+     * Schedule daily maintenance. Keeps an existing schedule untouched.
+     */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiresDeviceIdle(true)
+                .setRequiresBatteryNotLow(true)
+                .build();
+
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+                MaintenanceWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(constraints)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+}
@@ -0,0 +1,187 @@
+package com.studenthub.worker;
+
+import android.app.Notification;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.core.app.NotificationCompat;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.ForegroundInfo;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.OutOfQuotaPolicy;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.studenthub.R;
+import com.studenthub.StudentHubApp;
+import com.studenthub.data.repository.DataRepository;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs {@link DataRepository#sync} in the background.
+ *
+ * A periodic request keeps data fresh while the app is closed; a one-shot
+ * request is enqueued on app start and after offline writes. Both are unique
+ * work, so repeated requests coalesce instead of stacking up.
+ */
+public class SyncWorker extends Worker {
+
+    private static final String TAG = "SyncWorker";
+
+    private static final String WORK_PERIODIC = "sync_periodic";
+    private static final String WORK_ONE_SHOT = "sync_one_shot";
+
+    private static final long PERIODIC_INTERVAL_HOURS = 3;
+    private static final long BACKOFF_DELAY_SECONDS = 30;
+
+    // Stay inside WorkManager's 10 minute execution window
+    private static final long SYNC_TIMEOUT_MINUTES = 8;
+
+    private static final int NOTIFICATION_ID = 2001;
+
+    // This worker's view of the sync; a sync started from the UI may share the run
+    private volatile Future<Void> syncing;
+
+    public SyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        if (FirebaseAuth.getInstance().getCurrentUser() == null) {
+            return Result.success();
+        }
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Exception> error = new AtomicReference<>();
+
+        syncing = DataRepository.getInstance(getApplicationContext()).sync(new DataRepository.OnSyncCallback() {
+            @Override
+            public void onSuccess() {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                error.set(e);
+                done.countDown();
+            }
+        });
+        if (isStopped()) {
+            // Stopped before the handle was set, so onStopped had nothing to leave
+            leaveSync();
+        }
+
+        try {
+            if (!done.await(SYNC_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                leaveSync();
+                return Result.retry();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            leaveSync();
+            return Result.retry();
+        }
+
+        if (error.get() != null) {
+            Log.w(TAG, "Background sync failed, attempt " + getRunAttemptCount(), error.get());
+            return Result.retry();
+        }
+        return Result.success();
+    }
+
+    @Override
+    public void onStopped() {
+        leaveSync();
+    }
+
+    /**
+     * Stop waiting for the sync. It is only cancelled if nobody else, such as
+     * a pull-to-refresh that joined it, is still waiting.
+     */
+    private void leaveSync() {
+        Future<Void> current = syncing;
+        if (current != null) {
+            current.cancel(false);
+        }
+    }
+
+    /**
+     * Only used for expedited runs before Android 12, which need a foreground service.
+     */
+    @NonNull
+    @Override
+    public ForegroundInfo getForegroundInfo() {
+        Context context = getApplicationContext();
+        Notification notification = new NotificationCompat.Builder(context, StudentHubApp.CHANNEL_SYNC)
+                .setContentTitle(context.getString(R.string.syncing))
+                .setSmallIcon(R.drawable.ic_sync)
+                .setOngoing(true)
+                .setSilent(true)
+                .build();
+        return new ForegroundInfo(NOTIFICATION_ID, notification);
+    }
+
+    // ========== SCHEDULING ==========
+
+    /**
+     * Schedule the periodic sync. Keeps an existing schedule untouched.
+     */
+    public static void schedulePeriodic(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+                SyncWorker.class, PERIODIC_INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_DELAY_SECONDS, TimeUnit.SECONDS)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                WORK_PERIODIC, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Request a sync as soon as the network is available. Expedited when quota
+     * allows; a request already waiting absorbs this one.
+     */
+    public static void requestSync(Context context) {
+        // Expedited work only supports network and storage constraints
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(SyncWorker.class)
+                .setConstraints(constraints)
+                .setExpedited(OutOfQuotaPolicy.RUN_AS_NON_EXPEDITED_WORK_REQUEST)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_DELAY_SECONDS, TimeUnit.SECONDS)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniqueWork(
+                WORK_ONE_SHOT, ExistingWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Cancel all scheduled syncs, e.g. on logout.
+     */
+    public static void cancelAll(Context context) {
+        WorkManager manager = WorkManager.getInstance(context);
+        manager.cancelUniqueWork(WORK_PERIODIC);
+        manager.cancelUniqueWork(WORK_ONE_SHOT);
+    }
+}
@@ -0,0 +1,91 @@
+package com.studenthub.data.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.studenthub.data.local.model.SyncStamp;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Device A edits a task while device B deletes it. B's tombstone reaches the
+ * server first, then A's patch lands on it. Both devices must end up with the
+ * same row whichever way the pulls go.
+ */
+public class EditAfterRemoteDeleteTest {
+
+    private static final String ID = "t1";
+
+    @Test
+    public void patchCarriesDeletedFlag() {
+        Map<String, Object> patch = FirestoreManager.patchData(editedTask(200),
+            Collections.singleton(FirestoreManager.FIELD_COMPLETED));
+
+        assertEquals(Boolean.FALSE, patch.get("deleted"));
+        assertEquals(200L, patch.get("updatedAt"));
+        assertEquals(Boolean.TRUE, patch.get(FirestoreManager.FIELD_COMPLETED));
+        assertFalse("Unpatched fields stay off the wire", patch.containsKey("title"));
+    }
+
+    @Test
+    public void patchOnTombstoneRevivesDocument() {
+        // Merge-set tombstone over the existing document, as B writes it
+        Map<String, Object> server = editedTask(100);
+        server.put(FirestoreManager.FIELD_COMPLETED, false);
+        server.put("updatedAt", 150L);
+        server.put("deleted", true);
+
+        // update() overwrites exactly the patched keys
+        server.putAll(FirestoreManager.patchData(editedTask(200),
+            Collections.singleton(FirestoreManager.FIELD_COMPLETED)));
+
+        assertEquals(Boolean.FALSE, server.get("deleted"));
+        assertEquals(200L, server.get("updatedAt"));
+        assertEquals("Read chapter", server.get("title"));
+
+        // B holds its tombstone at 150 and takes the revived document
+        assertTrue(pulls(server, 150L));
+        // A already holds the row it wrote at 200 and keeps it
+        assertFalse(pulls(server, 200L));
+    }
+
+    /**
+     * Whether a device whose local copy was written at {@code localUpdatedAt}
+     * replaces it with the pulled document.
+     */
+    private static boolean pulls(Map<String, Object> document, long localUpdatedAt) {
+        SyncStamp stamp = new SyncStamp();
+        stamp.id = ID;
+        stamp.updatedAt = localUpdatedAt;
+        List<Map<String, Object>> winners = SyncStamp.selectNewer(
+            Collections.singletonList(document),
+            doc -> (String) doc.get("id"),
+            doc -> (Long) doc.get("updatedAt"),
+            ids -> Collections.singletonList(stamp));
+        return !winners.isEmpty();
+    }
+
+    /**
+     * A's copy after marking the task completed, shaped like taskToMap.
+     */
+    private static Map<String, Object> editedTask(long updatedAt) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", ID);
+        map.put("userId", "u1");
+        map.put("title", "Read chapter");
+        map.put("dueDate", null);
+        map.put("tags", "reading");
+        map.put(FirestoreManager.FIELD_COMPLETED, true);
+        map.put("createdAt", 1L);
+        map.put("updatedAt", updatedAt);
+        map.put("deleted", false);
+        map.put("serverUpdatedAt", "server-time");
+        return map;
+    }
+}